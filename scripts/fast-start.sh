@@ -0,0 +1,89 @@
+#!/usr/bin/env bash
+# Builds the fast-start layout and compares its start-up time with the plain jar.
+#
+#   scripts/fast-start.sh [runs]
+#
+# 1. Package with -Pfast-start, which adds Spring AOT-processed bean definitions to the jar.
+# 2. Extract the jar into target/fast-start; CDS needs a class path of plain jars.
+# 3. Training runs of `version` and `weather` against a local stub, each recording the classes
+#    it loads.
+# 4. Dump one AppCDS archive from the merged class lists.
+# 5. Time `version` and `weather` with the plain jar and with AOT + CDS, and `weather` on the
+#    one-shot fast path with CDS; print the medians.
+#
+# Requires JDK 21 (java, jwebserver) and Maven on PATH.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-10}
+PORT=${STUB_PORT:-18089}
+OUT=target/fast-start
+
+mvn -q -B -Pfast-start -DskipTests package
+JAR=$(ls target/archetype-java-cli-*.jar | head -n 1)
+rm -rf "$OUT"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+APP="$OUT/$(basename "$JAR")"
+
+# Open-Meteo stub: serves the same forecast for any query string
+jwebserver -b 127.0.0.1 -p "$PORT" -d "$PWD/scripts/fast-start" >/dev/null 2>&1 &
+STUB=$!
+trap 'kill "$STUB" 2>/dev/null || true' EXIT
+for _ in $(seq 50); do
+  (exec 3<>"/dev/tcp/127.0.0.1/$PORT") 2>/dev/null && break
+  sleep 0.1
+done
+
+# Passed as system properties: the shell treats extra arguments as command options.
+# The one-shot weather fast path is off here so both columns run the full shell.
+PROPS=(
+  -Dspring.main.banner-mode=off
+  -Dcli.cache.enabled=false
+  "-Dcli.endpoints.open-meteo-base-url=http://127.0.0.1:$PORT/forecast.json"
+)
+command_args() {
+  case "$1" in
+    version) echo "version" ;;
+    weather) echo "weather --lat 40.4168 --lon -3.7038" ;;
+  esac
+}
+
+# Training: record every class each command loads
+for cmd in version weather; do
+  # shellcheck disable=SC2046
+  java "${PROPS[@]}" -Xshare:off -XX:DumpLoadedClassList="$OUT/$cmd.classlist" \
+    -Dspring.aot.enabled=true -jar "$APP" $(command_args "$cmd") >/dev/null
+done
+
+# Class list ids are per run, so drop them and keep the first occurrence of every line
+awk '!/^#/ { sub(/ id: [0-9]+$/, ""); if (!seen[$0]++) print }' \
+  "$OUT/version.classlist" "$OUT/weather.classlist" >"$OUT/app.classlist"
+java -Xshare:dump -XX:SharedClassListFile="$OUT/app.classlist" \
+  -XX:SharedArchiveFile="$OUT/app.jsa" -cp "$APP" >/dev/null
+
+median_ms() {
+  local cmd=$1
+  shift
+  local samples=()
+  for _ in $(seq "$RUNS"); do
+    local start end
+    start=$(date +%s%N)
+    # shellcheck disable=SC2046
+    java "${PROPS[@]}" "$@" $(command_args "$cmd") >/dev/null
+    end=$(date +%s%N)
+    samples+=($(((end - start) / 1000000)))
+  done
+  printf '%s\n' "${samples[@]}" | sort -n | sed -n "$(((RUNS + 1) / 2))p"
+}
+
+printf '%-10s %12s %18s\n' "command" "plain (ms)" "AOT + CDS (ms)"
+for cmd in version weather; do
+  plain=$(median_ms "$cmd" -Dcli.fast-path=false -jar "$JAR")
+  fast=$(median_ms "$cmd" -XX:SharedArchiveFile="$OUT/app.jsa" -Dspring.aot.enabled=true \
+    -jar "$APP")
+  printf '%-10s %12d %18d\n' "$cmd" "$plain" "$fast"
+done
+oneshot=$(median_ms weather -XX:SharedArchiveFile="$OUT/app.jsa" -jar "$APP")
+printf '%-10s %12s %18d  (one-shot fast path + CDS)\n' "weather" "" "$oneshot"
+echo "median of $RUNS runs each; fast start: java -XX:SharedArchiveFile=$OUT/app.jsa" \
+  "-Dspring.aot.enabled=true -jar $APP"
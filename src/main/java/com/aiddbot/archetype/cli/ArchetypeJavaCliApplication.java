@@ -1,5 +1,7 @@
 package com.aiddbot.archetype.cli;
 
+import java.util.OptionalInt;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -12,6 +14,7 @@ import org.springframework.boot.info.BuildProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.Environment;
 
+import com.aiddbot.archetype.cli.daemon.DaemonClient;
 import com.aiddbot.archetype.cli.runtime.DefaultExitCodeExceptionMapper;
 import com.aiddbot.archetype.cli.runtime.ExitCodeExceptionMapper;
 
@@ -31,17 +34,32 @@ public class ArchetypeJavaCliApplication {
    * Application entrypoint for the Archetype Java CLI.
    *
    * <p>Boots a Spring Boot application configured for CLI usage (non-web) and prints a simple
-   * banner to the console.
+   * banner to the console. A single one-shot {@code weather} call takes the {@link OneShot} fast
+   * path instead, and with {@code CLI_DAEMON_SOCKET} set, {@code version} and one-shot {@code
+   * weather} calls are forwarded to a running daemon (see {@link DaemonClient}).
    *
    * @param args command line arguments
    */
   public static void main(String[] args) {
+    OptionalInt remote = DaemonClient.tryRun(args);
+    if (remote.isPresent()) {
+      System.exit(remote.getAsInt());
+    }
+    ExitCodeExceptionMapper mapper = new DefaultExitCodeExceptionMapper();
+    if (OneShot.parse(args).isPresent()) {
+      int code = OneShot.run(args, mapper);
+      if (code != 0) {
+        System.exit(code);
+      }
+      return;
+    }
     SpringApplication app = new SpringApplication(ArchetypeJavaCliApplication.class);
     app.setBannerMode(Banner.Mode.CONSOLE);
-    ExitCodeExceptionMapper mapper = new DefaultExitCodeExceptionMapper();
     try {
       app.run(args);
       log.info("=== APPLICATION SHUTDOWN ===");
+    } catch (SpringApplication.AbandonedRunException e) {
+      throw e; // build-time AOT processing stops the run on purpose once the context is prepared
     } catch (Throwable t) {
       int code = mapper.map(t);
       log.error("Fatal error: {} (code={})", mapper.message(t), code, t);
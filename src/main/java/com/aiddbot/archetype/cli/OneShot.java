@@ -0,0 +1,109 @@
+package com.aiddbot.archetype.cli;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import com.aiddbot.archetype.cli.commands.CommandDispatcher;
+import com.aiddbot.archetype.cli.commands.CommandRequest;
+import com.aiddbot.archetype.cli.commands.VersionCommands;
+import com.aiddbot.archetype.cli.commands.WeatherCommands;
+import com.aiddbot.archetype.cli.config.CacheConfig;
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.config.MetricsConfig;
+import com.aiddbot.archetype.cli.config.WebClientConfig;
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.location.Gazetteer;
+import com.aiddbot.archetype.cli.metrics.StartupTimes;
+import com.aiddbot.archetype.cli.presenter.WeatherPresenter;
+import com.aiddbot.archetype.cli.runtime.ExitCodeExceptionMapper;
+
+/**
+ * Fast path for a single non-interactive {@code weather} call.
+ *
+ * <p>When the command line is a {@code weather} {@link CommandRequest},
+ * {@link ArchetypeJavaCliApplication#main} runs it here through {@link CommandDispatcher} instead of
+ * booting Spring Shell. The context holds only the beans {@link WeatherCommands} needs: no
+ * auto-configuration, no JLine terminal, no command registry, no banner and no startup runner. The
+ * {@code oneshot} profile is activated, so the HTTP client uses a single event loop.
+ *
+ * <p>Anything else (other commands, {@code --watch}, unknown options, no arguments) goes through
+ * the full shell, as does every run when AOT-generated artifacts are in use, since those are built
+ * for the full application only. Set {@code CLI_FAST_PATH=false} (or {@code -Dcli.fast-path=false})
+ * to always use the full shell.
+ */
+final class OneShot {
+
+  private OneShot() {}
+
+  /**
+   * Decide whether the command line can take the fast path.
+   *
+   * @param args command line arguments
+   * @return the parsed call, or empty when the full shell must handle it
+   */
+  static Optional<CommandRequest> parse(String[] args) {
+    if (!enabled()) {
+      return Optional.empty();
+    }
+    return CommandRequest.parse(List.of(args)).filter(r -> "weather".equals(r.command()));
+  }
+
+  /**
+   * Run the call in a minimal context and print its result.
+   *
+   * @param args command line arguments accepted by {@link #parse(String[])}
+   * @param mapper maps start-up failures to exit codes
+   * @return the process exit code
+   */
+  static int run(String[] args, ExitCodeExceptionMapper mapper) {
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(Beans.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .logStartupInfo(false)
+            .profiles("oneshot")
+            .run()) {
+      return context.getBean(CommandDispatcher.class).execute(List.of(args));
+    } catch (Throwable t) {
+      System.err.println(UserFacingErrors.format(t));
+      return mapper.map(t);
+    }
+  }
+
+  private static boolean enabled() {
+    String flag = System.getProperty("cli.fast-path", System.getenv("CLI_FAST_PATH"));
+    return !"false".equalsIgnoreCase(flag) && !AotDetector.useGeneratedArtifacts();
+  }
+
+  /**
+   * Everything {@code weather} needs, plus {@link VersionCommands}, which only {@link
+   * CommandDispatcher} depends on here.
+   */
+  @Configuration(proxyBeanMethods = false)
+  @EnableConfigurationProperties(CliProperties.class)
+  @Import({
+    MetricsConfig.class,
+    CacheConfig.class,
+    WebClientConfig.class,
+    IpGeoClient.class,
+    OpenMeteoClient.class,
+    Gazetteer.class,
+    WeatherPresenter.class,
+    StartupTimes.class,
+    VersionCommands.class,
+    WeatherCommands.class,
+    CommandDispatcher.class
+  })
+  static class Beans {}
+}
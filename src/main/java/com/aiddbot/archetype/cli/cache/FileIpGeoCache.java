@@ -0,0 +1,101 @@
+package com.aiddbot.archetype.cli.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link IpGeoCache} persisted as a small JSON file shared by every CLI process on the host.
+ *
+ * <p>The file holds one entry. It is reused until it is older than the TTL, or until the source
+ * asking for it or the host's network fingerprint (see {@link NetworkFingerprint}) differs from
+ * the one recorded with it. Writes go to a temporary file that is atomically moved into place, so
+ * concurrent readers never see a partial entry.
+ */
+public final class FileIpGeoCache implements IpGeoCache {
+
+  private static final Logger log = LoggerFactory.getLogger(FileIpGeoCache.class);
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Path file;
+  private final long ttlMillis;
+  private final Clock clock;
+  private final Supplier<String> fingerprint;
+
+  /**
+   * @param file cache file path; parent directories are created on first write
+   * @param ttl maximum age of a reused entry
+   * @param clock time source for entry age
+   * @param fingerprint supplier of the current network identity
+   */
+  public FileIpGeoCache(Path file, Duration ttl, Clock clock, Supplier<String> fingerprint) {
+    this.file = file;
+    this.ttlMillis = ttl.toMillis();
+    this.clock = clock;
+    this.fingerprint = fingerprint;
+  }
+
+  @Override
+  public Optional<IpGeoResponse> get(String source) {
+    try (InputStream in = Files.newInputStream(file)) {
+      Entry entry = mapper.readValue(in, Entry.class);
+      long age = clock.millis() - entry.storedAt();
+      if (entry.response() == null || age < 0 || age > ttlMillis) {
+        return Optional.empty();
+      }
+      if (!Objects.equals(entry.source(), source)) {
+        log.info("ip-geo cache entry is from {}, not {}", entry.source(), source);
+        return Optional.empty();
+      }
+      if (!Objects.equals(entry.network(), fingerprint.get())) {
+        log.info("ip-geo cache invalidated: network changed");
+        return Optional.empty();
+      }
+      return Optional.of(entry.response());
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException | RuntimeException e) {
+      log.warn("ip-geo cache read failed: {}", e.toString());
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void put(String source, IpGeoResponse response) {
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "ip-geo", ".tmp");
+      try {
+        Entry entry = new Entry(clock.millis(), source, fingerprint.get(), response);
+        mapper.writeValue(tmp.toFile(), entry);
+        try {
+          Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("ip-geo cache write failed: {}", e.toString());
+    }
+  }
+
+  /** On-disk representation. */
+  record Entry(long storedAt, String source, String network, IpGeoResponse response) {}
+}
@@ -0,0 +1,42 @@
+package com.aiddbot.archetype.cli.cache;
+
+import java.util.Optional;
+
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoResponse;
+
+/**
+ * Cache of the host's last successful IP geolocation.
+ *
+ * <p>Each entry records the source that produced it, such as the geolocation backend, and is only
+ * served to lookups from the same source. Failures are never propagated: a broken cache behaves
+ * like a miss.
+ */
+public interface IpGeoCache {
+
+  /** Cache that never stores anything; used when caching is disabled. */
+  IpGeoCache NOOP =
+      new IpGeoCache() {
+        @Override
+        public Optional<IpGeoResponse> get(String source) {
+          return Optional.empty();
+        }
+
+        @Override
+        public void put(String source, IpGeoResponse response) {}
+      };
+
+  /**
+   * @param source what the caller would look the location up with
+   * @return the cached location, or empty when missing, expired, stored by another source or the
+   *     network changed
+   */
+  Optional<IpGeoResponse> get(String source);
+
+  /**
+   * Store a successful geolocation for the current network.
+   *
+   * @param source what the location was looked up with
+   * @param response response to store
+   */
+  void put(String source, IpGeoResponse response);
+}
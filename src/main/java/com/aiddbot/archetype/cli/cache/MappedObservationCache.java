@@ -0,0 +1,251 @@
+package com.aiddbot.archetype.cli.cache;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+
+/**
+ * {@link ObservationCache} backed by a memory-mapped file shared by every CLI process on the host.
+ *
+ * <p>The file is a fixed-size, direct-mapped table: coordinates are quantized to a grid cell and
+ * each cell hashes to exactly one slot, so a newer entry simply overwrites an older colliding one.
+ * Slot layout (48 bytes, native byte order):
+ *
+ * <pre>
+ *   0 seq      long   even = stable, odd = write in progress
+ *   8 latCell  int
+ *  12 lonCell  int
+ *  16 storedAt long   epoch millis
+ *  24 temp     double
+ *  32 wind     double
+ *  40 code     int
+ *  44 (pad)    int
+ * </pre>
+ *
+ * <p>Readers never lock: they use the slot sequence number as a seqlock and treat a torn or
+ * in-progress read as a miss. Writers serialize on an exclusive {@link FileLock} over the slot, so
+ * concurrent processes cannot interleave writes.
+ *
+ * <p>Other processes may have the file mapped at any time, so it is never truncated or resized
+ * once it has a header. The layout version, slot count and grid step are part of the {@link
+ * #fileFor file name} and are checked against the header: a process configured differently uses
+ * its own file instead of rewriting a shared one or reading cells of another grid as its own.
+ */
+public final class MappedObservationCache implements ObservationCache, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(MappedObservationCache.class);
+
+  private static final long MAGIC = 0x41524348_4F425331L; // "ARCHOBS1"
+  private static final int LAYOUT_VERSION = 2;
+  private static final int HEADER_BYTES = 64;
+  private static final int SLOT_BYTES = 48;
+  private static final int READ_ATTEMPTS = 4;
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int slots;
+  private final long ttlMillis;
+  private final double gridDegrees;
+  private final Clock clock;
+
+  /**
+   * Cache file for a table of {@code slots} slots over a {@code gridDegrees} grid in {@code
+   * directory}.
+   *
+   * @param directory cache directory
+   * @param slots number of slots in the table
+   * @param gridDegrees quantization step for coordinates, in decimal degrees
+   * @return a path naming the layout version, slot count and grid step, e.g. {@code
+   *     observations-v2-4096-0.01.bin}
+   */
+  public static Path fileFor(Path directory, int slots, double gridDegrees) {
+    String grid = BigDecimal.valueOf(gridDegrees).stripTrailingZeros().toPlainString();
+    return directory.resolve(
+        "observations-v" + LAYOUT_VERSION + "-" + slots + "-" + grid + ".bin");
+  }
+
+  /**
+   * Open (or create) the cache file.
+   *
+   * <p>A new or empty file is initialized. An existing file with a different layout, slot count or
+   * grid step is left untouched and rejected, since other processes may still be using it.
+   *
+   * @param file cache file path, normally {@link #fileFor}; parent directories are created when
+   *     missing
+   * @param slots number of slots in the table
+   * @param ttl maximum age of an entry served from the cache
+   * @param gridDegrees quantization step for coordinates, in decimal degrees
+   * @param clock time source for entry age
+   * @throws IOException when the file cannot be created or mapped, or has a different layout
+   */
+  public MappedObservationCache(
+      Path file, int slots, Duration ttl, double gridDegrees, Clock clock) throws IOException {
+    this.slots = slots;
+    this.ttlMillis = ttl.toMillis();
+    this.gridDegrees = gridDegrees;
+    this.clock = clock;
+
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    long size = HEADER_BYTES + (long) slots * SLOT_BYTES;
+    this.channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      try (FileLock ignored = channel.lock()) {
+        if (!hasValidHeader(size)) {
+          if (!isUninitialized(size)) {
+            throw new IOException(
+                "observation cache file " + file + " has a different layout, not reusing it");
+          }
+          initialize(size);
+        }
+      }
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      this.buffer.order(ByteOrder.nativeOrder());
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public Optional<WeatherObservation> get(double lat, double lon) {
+    int latCell = cell(lat);
+    int lonCell = cell(lon);
+    int base = slotOffset(latCell, lonCell);
+
+    for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+      long seq = (long) LONGS.getVolatile(buffer, base);
+      if ((seq & 1L) != 0) {
+        continue; // writer in progress
+      }
+      int storedLat = buffer.getInt(base + 8);
+      int storedLon = buffer.getInt(base + 12);
+      long storedAt = buffer.getLong(base + 16);
+      double temp = buffer.getDouble(base + 24);
+      double wind = buffer.getDouble(base + 32);
+      int code = buffer.getInt(base + 40);
+      VarHandle.acquireFence();
+      if ((long) LONGS.getVolatile(buffer, base) != seq) {
+        continue; // torn read
+      }
+
+      long age = clock.millis() - storedAt;
+      if (seq == 0 || storedLat != latCell || storedLon != lonCell || age < 0 || age > ttlMillis) {
+        return Optional.empty();
+      }
+      return Optional.of(new WeatherObservation(temp, wind, code));
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public void put(double lat, double lon, WeatherObservation obs) {
+    int latCell = cell(lat);
+    int lonCell = cell(lon);
+    int base = slotOffset(latCell, lonCell);
+
+    // FileLock is held per JVM, so threads of this process serialize here first
+    synchronized (this) {
+      try (FileLock ignored = channel.lock(base, SLOT_BYTES, false)) {
+        long seq = (long) LONGS.getVolatile(buffer, base);
+        long writing = (seq & 1L) == 0 ? seq + 1 : seq; // recover from a crashed writer
+        LONGS.setVolatile(buffer, base, writing);
+        VarHandle.storeStoreFence();
+        buffer.putInt(base + 8, latCell);
+        buffer.putInt(base + 12, lonCell);
+        buffer.putLong(base + 16, clock.millis());
+        buffer.putDouble(base + 24, obs.getTemperatureCelsius());
+        buffer.putDouble(base + 32, obs.getWindSpeed());
+        buffer.putInt(base + 40, obs.getWeatherCode());
+        LONGS.setVolatile(buffer, base, writing + 1);
+      } catch (IOException | RuntimeException e) {
+        log.warn("observation cache write failed: {}", e.toString());
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private int cell(double degrees) {
+    return (int) Math.round(degrees / gridDegrees);
+  }
+
+  private int slotOffset(int latCell, int lonCell) {
+    long h = ((long) latCell << 32) ^ (lonCell & 0xFFFFFFFFL);
+    h *= 0x9E3779B97F4A7C15L;
+    int slot = (int) ((h >>> 32) % slots);
+    return HEADER_BYTES + slot * SLOT_BYTES;
+  }
+
+  private boolean hasValidHeader(long expectedSize) throws IOException {
+    if (channel.size() != expectedSize) {
+      return false;
+    }
+    var header = ByteBuffer.allocate(24).order(ByteOrder.nativeOrder());
+    channel.read(header, 0);
+    header.flip();
+    return header.remaining() == 24
+        && header.getLong() == MAGIC
+        && header.getInt() == slots
+        && header.getInt() == SLOT_BYTES
+        && header.getLong() == Double.doubleToLongBits(gridDegrees);
+  }
+
+  // No header and no larger than the table: just created, or its creator died before writing the
+  // header. Nobody maps a file without a header, so it is safe to initialize
+  private boolean isUninitialized(long expectedSize) throws IOException {
+    if (channel.size() > expectedSize) {
+      return false;
+    }
+    var magic = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+    channel.read(magic, 0);
+    magic.flip();
+    return magic.remaining() < 8 || magic.getLong() == 0;
+  }
+
+  private void initialize(long size) throws IOException {
+    log.info(
+        "initializing observation cache: slots={}, gridDegrees={}, bytes={}",
+        slots,
+        gridDegrees,
+        size);
+    // Extend to full size first; unwritten regions read back as zeros (empty slots)
+    channel.write(ByteBuffer.allocate(1), size - 1);
+    var header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+    header
+        .putLong(MAGIC)
+        .putInt(slots)
+        .putInt(SLOT_BYTES)
+        .putLong(Double.doubleToLongBits(gridDegrees));
+    header.clear();
+    channel.write(header, 0);
+    channel.force(true);
+  }
+}
@@ -0,0 +1,49 @@
+package com.aiddbot.archetype.cli.cache;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cheap, local summary of the host's network identity.
+ *
+ * <p>Lists the addresses of active, non-loopback interfaces. When the host joins another network
+ * (new DHCP lease, VPN, different Wi‑Fi) the fingerprint changes, which is the signal used to
+ * invalidate a cached public IP location without calling the remote service. IPv4 addresses are
+ * preferred because IPv6 privacy addresses rotate regularly.
+ */
+public final class NetworkFingerprint {
+
+  private NetworkFingerprint() {}
+
+  /**
+   * @return a stable text fingerprint, or an empty string when interfaces cannot be listed
+   */
+  public static String current() {
+    List<String> v4 = new ArrayList<>();
+    List<String> v6 = new ArrayList<>();
+    try {
+      for (NetworkInterface nif : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+        if (!nif.isUp() || nif.isLoopback()) {
+          continue;
+        }
+        for (InetAddress addr : Collections.list(nif.getInetAddresses())) {
+          if (addr.isLinkLocalAddress() || addr.isLoopbackAddress()) {
+            continue;
+          }
+          String item = nif.getName() + "=" + addr.getHostAddress();
+          (addr instanceof Inet4Address ? v4 : v6).add(item);
+        }
+      }
+    } catch (SocketException | RuntimeException e) {
+      return "";
+    }
+    List<String> chosen = v4.isEmpty() ? v6 : v4;
+    Collections.sort(chosen);
+    return String.join(";", chosen);
+  }
+}
@@ -0,0 +1,44 @@
+package com.aiddbot.archetype.cli.cache;
+
+import java.util.Optional;
+
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+
+/**
+ * Cache of recent {@link WeatherObservation}s keyed by coordinates.
+ *
+ * <p>Implementations may quantize coordinates, so nearby points can share one entry. Failures are
+ * never propagated: a broken cache behaves like a miss.
+ */
+public interface ObservationCache {
+
+  /** Cache that never stores anything; used when caching is disabled. */
+  ObservationCache NOOP =
+      new ObservationCache() {
+        @Override
+        public Optional<WeatherObservation> get(double lat, double lon) {
+          return Optional.empty();
+        }
+
+        @Override
+        public void put(double lat, double lon, WeatherObservation obs) {}
+      };
+
+  /**
+   * Look up a fresh observation for the given coordinates.
+   *
+   * @param lat latitude in decimal degrees
+   * @param lon longitude in decimal degrees
+   * @return the cached observation, or empty when missing or expired
+   */
+  Optional<WeatherObservation> get(double lat, double lon);
+
+  /**
+   * Store an observation for the given coordinates.
+   *
+   * @param lat latitude in decimal degrees
+   * @param lon longitude in decimal degrees
+   * @param obs observation to store
+   */
+  void put(double lat, double lon, WeatherObservation obs);
+}
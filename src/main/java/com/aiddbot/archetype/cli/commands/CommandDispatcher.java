@@ -0,0 +1,95 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.DefaultExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+/**
+ * Runs a {@link CommandRequest} on the command beans without going through Spring Shell.
+ *
+ * <p>{@link #execute(List)} prints the result to {@link System#out} and errors to {@link
+ * System#err}, as the shell would; the exit code is the one {@link DefaultExitCodeExceptionMapper}
+ * assigns to the failure. {@link #execute(List, PrintStream, PrintStream)} prints to the given
+ * streams instead, so several command lines can run at once. {@link #call(CommandRequest)} returns
+ * the result, for callers that arrange the output themselves.
+ */
+@Component
+public class CommandDispatcher {
+
+  private static final ExitCodeExceptionMapper MAPPER = new DefaultExitCodeExceptionMapper();
+
+  private final VersionCommands versionCommands;
+  private final WeatherCommands weatherCommands;
+
+  public CommandDispatcher(VersionCommands versionCommands, WeatherCommands weatherCommands) {
+    this.versionCommands = versionCommands;
+    this.weatherCommands = weatherCommands;
+  }
+
+  /**
+   * Run a command line.
+   *
+   * @param argv command name followed by its options
+   * @return the process exit code for the run
+   */
+  public int execute(List<String> argv) {
+    return execute(argv, System.out, System.err);
+  }
+
+  /**
+   * Run a command line, printing only to the given streams.
+   *
+   * @param argv command name followed by its options
+   * @param out receives the result
+   * @param err receives errors and the {@code --profile} breakdown
+   * @return the process exit code for the run
+   */
+  public int execute(List<String> argv, PrintStream out, PrintStream err) {
+    Optional<CommandRequest> request = CommandRequest.parse(argv);
+    if (request.isEmpty()) {
+      CodedException ce =
+          new CodedException(
+              ExitCodes.VALIDATION,
+              "not supported here, run it with the full CLI: " + String.join(" ", argv));
+      err.println(UserFacingErrors.format(ce));
+      return ce.getExitCode().code();
+    }
+    try {
+      out.println(call(request.get(), err));
+      return ExitCodes.SUCCESS.code();
+    } catch (RuntimeException e) {
+      err.println(UserFacingErrors.format(e));
+      return MAPPER.map(e);
+    }
+  }
+
+  /**
+   * Run a parsed command and return what the shell would print for it.
+   *
+   * <p>Failures are thrown without being reported, so the caller prints each one exactly once.
+   *
+   * @param request the command to run
+   * @return the command's result
+   */
+  public String call(CommandRequest request) {
+    return call(request, System.err);
+  }
+
+  private String call(CommandRequest request, PrintStream err) {
+    return switch (request.command()) {
+      case "version" -> versionCommands.version();
+      case "weather" ->
+          weatherCommands.currentWeather(
+              request.lat(), request.lon(), request.city(), request.profile(), err);
+      default -> throw new IllegalStateException("unexpected command " + request.command());
+    };
+  }
+}
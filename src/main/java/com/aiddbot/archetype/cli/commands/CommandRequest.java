@@ -0,0 +1,112 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A command line that can run without Spring Shell: {@code version}, or a one-shot {@code weather}
+ * with any of {@code --lat}, {@code --lon}, {@code --city} and {@code --profile}.
+ *
+ * <p>Used by the paths that dispatch commands themselves (see {@link CommandDispatcher}); anything
+ * else, including {@code --watch}, is left to the shell.
+ *
+ * @param command {@code version} or {@code weather}
+ * @param lat latitude, or {@code null}
+ * @param lon longitude, or {@code null}
+ * @param city city name, or {@code null}
+ * @param profile whether to print the per-phase timing breakdown
+ */
+public record CommandRequest(String command, Double lat, Double lon, String city, boolean profile) {
+
+  /**
+   * Split one line of text into arguments at whitespace, like a shell: single or double quotes keep
+   * spaces inside an argument ({@code weather --city "Valencia, Spain"}). There are no escapes.
+   *
+   * @param line a command line as typed
+   * @return its arguments
+   * @throws IllegalArgumentException when a quote is not closed
+   */
+  public static List<String> split(String line) {
+    List<String> argv = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    boolean inArgument = false;
+    char quote = 0;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        } else {
+          current.append(c);
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+        inArgument = true;
+      } else if (Character.isWhitespace(c)) {
+        if (inArgument) {
+          argv.add(current.toString());
+          current.setLength(0);
+          inArgument = false;
+        }
+      } else {
+        current.append(c);
+        inArgument = true;
+      }
+    }
+    if (quote != 0) {
+      throw new IllegalArgumentException("unclosed quote in: " + line);
+    }
+    if (inArgument) {
+      argv.add(current.toString());
+    }
+    return argv;
+  }
+
+  /**
+   * Parse a command line.
+   *
+   * @param argv command name followed by its options
+   * @return the request, or empty when the command line needs the full shell
+   */
+  public static Optional<CommandRequest> parse(List<String> argv) {
+    if (argv.isEmpty()) {
+      return Optional.empty();
+    }
+    if (argv.equals(List.of("version"))) {
+      return Optional.of(new CommandRequest("version", null, null, null, false));
+    }
+    if (!"weather".equals(argv.get(0))) {
+      return Optional.empty();
+    }
+    Double lat = null;
+    Double lon = null;
+    String city = null;
+    boolean profile = false;
+    for (int i = 1; i < argv.size(); i++) {
+      String option = argv.get(i);
+      if ("--profile".equals(option)) {
+        profile = true;
+        continue;
+      }
+      if (i + 1 == argv.size()) {
+        return Optional.empty();
+      }
+      String value = argv.get(++i);
+      try {
+        switch (option) {
+          case "--lat" -> lat = Double.valueOf(value);
+          case "--lon" -> lon = Double.valueOf(value);
+          case "--city" -> city = value;
+          default -> {
+            return Optional.empty();
+          }
+        }
+      } catch (NumberFormatException e) {
+        // let the shell report it
+        return Optional.empty();
+      }
+    }
+    return Optional.of(new CommandRequest("weather", lat, lon, city, profile));
+  }
+}
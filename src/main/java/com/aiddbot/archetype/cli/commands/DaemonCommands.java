@@ -0,0 +1,68 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.daemon.DaemonClient;
+import com.aiddbot.archetype.cli.daemon.DaemonServer;
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+/**
+ * Spring Shell command exposing the {@code daemon} command.
+ *
+ * <p>Keeps this process, with its Spring context, JIT-compiled code, {@code WebClient} connection
+ * pool and caches, running and serves {@link CommandRequest}s sent by {@link DaemonClient} over a
+ * Unix domain socket. Requests run concurrently through {@link CommandDispatcher}, each printing to
+ * its own client, so output and exit codes match a local run.
+ */
+@ShellComponent
+public class DaemonCommands {
+
+  private final CommandDispatcher dispatcher;
+  private final CliProperties props;
+
+  public DaemonCommands(CommandDispatcher dispatcher, CliProperties props) {
+    this.dispatcher = dispatcher;
+    this.props = props;
+  }
+
+  /**
+   * Serve thin clients until the process is stopped.
+   *
+   * @param socket optional socket path overriding {@code cli.daemon.socket}
+   * @return a confirmation line once the daemon stops
+   */
+  @ShellMethod(key = "daemon", value = "Serve version and weather calls from thin clients over a Unix domain socket")
+  public String daemon(
+      @ShellOption(help = "socket path (defaults to cli.daemon.socket)", defaultValue = ShellOption.NULL) String socket) {
+    Path path = socket != null ? Path.of(socket) : props.getDaemon().getSocket();
+    Duration requestTimeout = Duration.ofMillis(props.getDaemon().getRequestTimeoutMs());
+    DaemonServer server = new DaemonServer(path, requestTimeout, dispatcher::execute);
+    Thread hook = new Thread(server::close, "daemon-shutdown");
+    Runtime.getRuntime().addShutdownHook(hook);
+    try {
+      System.err.println("daemon: serving on " + path);
+      server.serve();
+    } catch (IOException e) {
+      CodedException ce = new CodedException(ExitCodes.IO, "daemon: " + e.getMessage(), e);
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    } finally {
+      server.close();
+      try {
+        Runtime.getRuntime().removeShutdownHook(hook);
+      } catch (IllegalStateException e) {
+        // already shutting down
+      }
+    }
+    return "daemon: stopped";
+  }
+}
@@ -0,0 +1,131 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import com.aiddbot.archetype.cli.diagnostics.CommandEvent;
+import com.aiddbot.archetype.cli.diagnostics.EventLines;
+import com.aiddbot.archetype.cli.diagnostics.UpstreamCallEvent;
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Spring Shell command controlling JDK Flight Recorder from inside the CLI.
+ *
+ * <ul>
+ *   <li>{@code diag start} starts a recording with the JDK's {@code profile} (or {@code --settings
+ *       default}) configuration plus the CLI's own {@link UpstreamCallEvent} and {@link
+ *       CommandEvent}.
+ *   <li>{@code diag stream} prints CLI, GC and allocation events to stderr as they happen.
+ *   <li>{@code diag stop} ends either; a recording is dumped to {@code --file}.
+ * </ul>
+ *
+ * <p>Meant for the interactive shell, so that other commands run while recording or streaming; for
+ * one-shot runs start the JVM with {@code -XX:StartFlightRecording} instead.
+ */
+@ShellComponent
+public class DiagCommands {
+
+  /** Events printed by {@code diag stream} besides the CLI's own. */
+  private static final List<String> STREAMED_JDK_EVENTS =
+      List.of("jdk.GarbageCollection", "jdk.GCPhasePause", "jdk.ObjectAllocationSample");
+
+  private Recording recording;
+  private RecordingStream stream;
+
+  /**
+   * Start or stop a recording, or stream events.
+   *
+   * @param action {@code start}, {@code stop} or {@code stream}
+   * @param settings JFR configuration used by {@code start}
+   * @param file recording file written by {@code stop}
+   * @return a confirmation line
+   */
+  @ShellMethod(key = "diag", value = "Start or stop a Flight Recorder recording, or stream events live")
+  public synchronized String diag(
+      @ShellOption(help = "start, stop or stream") String action,
+      @ShellOption(help = "JFR settings for start: default or profile", defaultValue = "profile") String settings,
+      @ShellOption(help = "recording file written by stop", defaultValue = "archetype-cli.jfr") String file) {
+    try {
+      return switch (action) {
+        case "start" -> start(settings);
+        case "stop" -> stop(Path.of(file));
+        case "stream" -> stream();
+        default ->
+            throw new CodedException(
+                ExitCodes.VALIDATION, "diag: unknown action '" + action + "', use start, stop or stream");
+      };
+    } catch (CodedException ce) {
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+  }
+
+  private String start(String settings) {
+    requireIdle();
+    Configuration config;
+    try {
+      config = Configuration.getConfiguration(settings);
+    } catch (IOException | ParseException e) {
+      throw new CodedException(
+          ExitCodes.VALIDATION, "diag: unknown JFR settings '" + settings + "'", e);
+    }
+    Recording r = new Recording(config);
+    r.setName("archetype-cli");
+    r.enable(UpstreamCallEvent.NAME);
+    r.enable(CommandEvent.NAME);
+    r.start();
+    recording = r;
+    return "diag: recording started with '" + settings + "' settings";
+  }
+
+  private String stop(Path file) {
+    if (stream != null) {
+      stream.close();
+      stream = null;
+      return "diag: stream stopped";
+    }
+    if (recording == null) {
+      throw new CodedException(ExitCodes.VALIDATION, "diag: nothing is running");
+    }
+    try (Recording r = recording) {
+      recording = null;
+      r.stop();
+      r.dump(file);
+    } catch (IOException ioe) {
+      throw new CodedException(
+          ExitCodes.IO, "diag: cannot write recording to " + file + ": " + ioe.getMessage(), ioe);
+    }
+    return "diag: recording written to " + file;
+  }
+
+  private String stream() {
+    requireIdle();
+    RecordingStream rs = new RecordingStream();
+    rs.enable(UpstreamCallEvent.NAME);
+    rs.enable(CommandEvent.NAME);
+    STREAMED_JDK_EVENTS.forEach(rs::enable);
+    rs.onEvent(e -> System.err.println(EventLines.format(e)));
+    rs.startAsync();
+    stream = rs;
+    return "diag: streaming events to stderr until 'diag stop'";
+  }
+
+  private void requireIdle() {
+    if (recording != null || stream != null) {
+      throw new CodedException(
+          ExitCodes.VALIDATION, "diag: already running, use 'diag stop' first");
+    }
+  }
+}
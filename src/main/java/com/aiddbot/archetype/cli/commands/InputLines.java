@@ -0,0 +1,57 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Line-oriented input for batch commands, read from a file or stdin.
+ *
+ * <p>Blank lines and lines starting with {@code #} are ignored. Lines are read lazily so large
+ * files can be streamed without loading them into memory.
+ */
+public final class InputLines {
+
+  /** Source name that selects standard input instead of a file. */
+  public static final String STDIN = "-";
+
+  private InputLines() {}
+
+  /**
+   * Open a lazy stream of trimmed, non-comment lines from a file or stdin.
+   *
+   * <p>The caller must close the returned stream to release the underlying file handle.
+   *
+   * @param source file path, or {@link #STDIN}
+   * @return stream of trimmed, non-empty lines
+   * @throws UncheckedIOException when the file cannot be opened
+   */
+  public static Stream<String> open(String source) {
+    Stream<String> lines;
+    if (STDIN.equals(source)) {
+      // stdin is shared with the shell, so it is never closed here
+      lines = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)).lines();
+    } else {
+      try {
+        BufferedReader reader = Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8);
+        lines = reader.lines().onClose(() -> closeQuietly(reader));
+      } catch (IOException e) {
+        throw new UncheckedIOException("cannot open input: " + source, e);
+      }
+    }
+    return lines.map(String::trim).filter(l -> !l.isEmpty() && !l.startsWith("#"));
+  }
+
+  private static void closeQuietly(BufferedReader reader) {
+    try {
+      reader.close();
+    } catch (IOException ignored) {
+      // nothing useful to do on close failure
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoClient;
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoResponse;
+import com.aiddbot.archetype.cli.logging.Correlation;
+import com.aiddbot.archetype.cli.metrics.CommandMetrics;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Spring Shell command group exposing the {@code ip-lookup} command.
+ *
+ * <p>
+ * Geolocates a list of IP addresses with the configured ip-geo backend. With
+ * the remote backend, addresses are sent in ip-api batch requests of up to
+ * {@link IpGeoClient#MAX_BATCH_SIZE}, with up to
+ * {@code cli.batch.max-in-flight} requests open at once; rows are printed as
+ * soon as their request completes.
+ *
+ * <p>
+ * The client is injected lazily, so the HTTP stack is only built when the
+ * command first runs.
+ */
+@ShellComponent
+public class IpLookupCommands {
+
+  private final IpGeoClient ipGeoClient;
+  private final CliProperties props;
+
+  public IpLookupCommands(@Lazy IpGeoClient ipGeoClient, CliProperties props) {
+    this.ipGeoClient = ipGeoClient;
+    this.props = props;
+  }
+
+  /**
+   * Geolocate every IP address listed in a file or stdin.
+   *
+   * @param file        path with one IP address per line, or {@code -} for stdin
+   * @param concurrency optional override of {@code cli.batch.max-in-flight}
+   * @return summary line with the number of processed addresses
+   * @throws CodedException when any address failed, carrying the first
+   *                        failure's exit code
+   */
+  @ShellMethod(key = "ip-lookup", value = "Geolocate many IP addresses read from a file or stdin")
+  public String ipLookup(
+      @ShellOption(help = "file with one IP address per line, or '-' for stdin", defaultValue = InputLines.STDIN) String file,
+      @ShellOption(help = "max concurrent requests (defaults to cli.batch.max-in-flight)", defaultValue = ShellOption.NULL) Integer concurrency) {
+    return CommandMetrics.record("ip-lookup", () -> runIpLookup(file, concurrency));
+  }
+
+  private String runIpLookup(String file, Integer concurrency) {
+    int maxInFlight = concurrency != null ? concurrency : props.getBatch().getMaxInFlight();
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("concurrency must be at least 1");
+    }
+
+    AtomicLong succeeded = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+    AtomicReference<CodedException> firstFailure = new AtomicReference<>();
+    BiConsumer<String, CodedException> report = (label, ce) -> {
+      failed.incrementAndGet();
+      firstFailure.compareAndSet(null, ce);
+      System.err.println(label + ": " + UserFacingErrors.format(ce));
+    };
+
+    try {
+      Flux.using(() -> InputLines.open(file), Flux::fromStream, Stream::close)
+          .buffer(IpGeoClient.MAX_BATCH_SIZE)
+          .flatMap(
+              // chunks are sized for one request, so the client issues exactly one call each
+              chunk -> ipGeoClient.lookupManyAsync(chunk)
+                  .onErrorResume(
+                      CodedException.class,
+                      ce -> {
+                        chunk.forEach(ip -> report.accept(ip, ce));
+                        return Flux.empty();
+                      }),
+              maxInFlight)
+          .doOnNext(
+              row -> {
+                if ("success".equalsIgnoreCase(row.getStatus())) {
+                  succeeded.incrementAndGet();
+                  System.out.println(format(row));
+                } else {
+                  String msg = row.getMessage() != null ? row.getMessage() : "lookup failed";
+                  report.accept(row.getQuery(), new CodedException(ExitCodes.UNKNOWN, msg));
+                }
+              })
+          .contextWrite(Correlation.context())
+          .blockLast();
+    } catch (UncheckedIOException ioe) {
+      CodedException ce = new CodedException(ExitCodes.IO, ioe.getMessage(), ioe.getCause());
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+
+    long total = succeeded.get() + failed.get();
+    if (firstFailure.get() != null) {
+      CodedException ce = new CodedException(
+          firstFailure.get().getExitCode(),
+          String.format("ip-lookup: %d of %d addresses failed", failed.get(), total),
+          firstFailure.get());
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+    return String.format("ip-lookup: %d addresses processed", total);
+  }
+
+  private static String format(IpGeoResponse row) {
+    String place = row.getCity() != null && row.getCountry() != null
+        ? row.getCity() + ", " + row.getCountry()
+        : "unknown place";
+    return String.format(
+        Locale.US, "%s: %s (lat %.4f, lon %.4f)", row.getQuery(), place, row.getLat(), row.getLon());
+  }
+}
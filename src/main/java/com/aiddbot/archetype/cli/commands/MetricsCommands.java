@@ -0,0 +1,57 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.metrics.MetricsSnapshot;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Spring Shell command printing a snapshot of the in-process metrics.
+ *
+ * <p>Most useful in the interactive shell, after running other commands in the same session; for
+ * one-shot runs set {@code cli.metrics.dump-file} instead.
+ */
+@ShellComponent
+public class MetricsCommands {
+
+  private final MeterRegistry registry;
+
+  public MetricsCommands(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * Print all recorded metrics, or write them to a file.
+   *
+   * @param file optional file to write the snapshot to instead of stdout
+   * @return the snapshot, or a confirmation line when written to a file
+   */
+  @ShellMethod(key = "metrics", value = "Show timers and counters recorded in this session")
+  public String metrics(
+      @ShellOption(help = "write the snapshot to this file instead of printing it", defaultValue = ShellOption.NULL) String file) {
+    String snapshot = MetricsSnapshot.render(registry);
+    if (file == null) {
+      return snapshot.isEmpty() ? "metrics: nothing recorded yet" : snapshot.stripTrailing();
+    }
+    try {
+      Files.writeString(Path.of(file), snapshot, StandardCharsets.UTF_8);
+    } catch (IOException ioe) {
+      CodedException ce =
+          new CodedException(ExitCodes.IO, "cannot write metrics to " + file + ": " + ioe.getMessage(), ioe);
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+    return "metrics: written to " + file;
+  }
+}
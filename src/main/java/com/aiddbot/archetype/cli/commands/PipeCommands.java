@@ -0,0 +1,161 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.metrics.CommandMetrics;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.DefaultExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Spring Shell command exposing the {@code pipe} command.
+ *
+ * <p>Runs many {@code version} and {@code weather} command lines, one per input line, in this
+ * process through {@link CommandDispatcher}, so a script pays for one JVM and one warm connection
+ * pool instead of one per call. Up to {@code cli.batch.max-in-flight} lines run at once, each on
+ * its own virtual thread; their results are still printed in input order, each after a header
+ * line carrying its exit code:
+ *
+ * <pre>
+ * #1 exit=0 version
+ * archetype-java-cli 0.1.0-SNAPSHOT ...
+ * #2 exit=2 weather --city Atlantis
+ * ERROR: unknown city: Atlantis
+ * </pre>
+ *
+ * <p>Header lines start with {@code #}, so they never parse as commands if the output is fed back
+ * in. Anything a command reports on stderr while running goes there as it happens.
+ */
+@ShellComponent
+public class PipeCommands {
+
+  private static final ExitCodeExceptionMapper MAPPER = new DefaultExitCodeExceptionMapper();
+
+  private final CommandDispatcher dispatcher;
+  private final CliProperties props;
+
+  public PipeCommands(CommandDispatcher dispatcher, CliProperties props) {
+    this.dispatcher = dispatcher;
+    this.props = props;
+  }
+
+  /**
+   * Run command lines read from a file or stdin.
+   *
+   * @param file path with one command line per line, or {@code -} for stdin
+   * @param concurrency optional override of {@code cli.batch.max-in-flight}
+   * @return summary line with the number of commands run
+   * @throws CodedException when any command failed, carrying the first failed command's exit code
+   */
+  @ShellMethod(key = "pipe", value = "Run version and weather command lines from a file or stdin, printing results in input order")
+  public String pipe(
+      @ShellOption(help = "file with one command line per line, or '-' for stdin", defaultValue = InputLines.STDIN) String file,
+      @ShellOption(help = "max commands running at once (defaults to cli.batch.max-in-flight)", defaultValue = ShellOption.NULL) Integer concurrency) {
+    return CommandMetrics.record("pipe", () -> runPipe(file, concurrency));
+  }
+
+  /** Result of one input line. */
+  private record Outcome(long number, String line, ExitCodes exit, String output) {}
+
+  private String runPipe(String file, Integer concurrency) {
+    int limit = concurrency != null ? concurrency : props.getBatch().getMaxInFlight();
+    if (limit < 1) {
+      throw new IllegalArgumentException("concurrency must be at least 1");
+    }
+
+    AtomicLong failed = new AtomicLong();
+    AtomicReference<Outcome> firstFailure = new AtomicReference<>();
+    Scheduler scheduler =
+        Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "pipe");
+    long total;
+    try {
+      total =
+          Flux.using(() -> InputLines.open(file), Flux::fromStream, Stream::close)
+              .index()
+              // Lines run concurrently, but results are emitted in input order
+              .flatMapSequential(
+                  numbered ->
+                      Mono.fromCallable(() -> runLine(numbered.getT1() + 1, numbered.getT2()))
+                          .subscribeOn(scheduler),
+                  limit)
+              .doOnNext(
+                  outcome -> {
+                    if (outcome.exit() != ExitCodes.SUCCESS) {
+                      failed.incrementAndGet();
+                      firstFailure.compareAndSet(null, outcome);
+                    }
+                    print(outcome);
+                  })
+              .count()
+              .block();
+    } catch (UncheckedIOException ioe) {
+      CodedException ce = new CodedException(ExitCodes.IO, ioe.getMessage(), ioe.getCause());
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    } finally {
+      scheduler.dispose();
+    }
+
+    if (firstFailure.get() != null) {
+      CodedException ce =
+          new CodedException(
+              firstFailure.get().exit(),
+              String.format(
+                  "pipe: %d of %d commands failed, first at #%d",
+                  failed.get(), total, firstFailure.get().number()));
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+    return String.format("pipe: %d commands run", total);
+  }
+
+  // Never throws: every failure becomes the line's outcome
+  private Outcome runLine(long number, String line) {
+    try {
+      List<String> argv = CommandRequest.split(line);
+      CommandRequest request =
+          CommandRequest.parse(argv)
+              .orElseThrow(
+                  () ->
+                      new CodedException(
+                          ExitCodes.VALIDATION, "only version and weather can be piped: " + line));
+      return new Outcome(number, line, ExitCodes.SUCCESS, dispatcher.call(request));
+    } catch (RuntimeException e) {
+      return new Outcome(number, line, ExitCodes.of(MAPPER.map(e)), UserFacingErrors.format(e));
+    }
+  }
+
+  private static void print(Outcome outcome) {
+    StringBuilder sb = new StringBuilder();
+    sb.append('#')
+        .append(outcome.number())
+        .append(" exit=")
+        .append(outcome.exit().code())
+        .append(' ')
+        .append(outcome.line())
+        .append(System.lineSeparator());
+    String output = outcome.output() == null ? "" : outcome.output().stripTrailing();
+    if (!output.isEmpty()) {
+      sb.append(output).append(System.lineSeparator());
+    }
+    System.out.print(sb);
+    System.out.flush();
+  }
+}
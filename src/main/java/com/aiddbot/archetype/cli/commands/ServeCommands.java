@@ -0,0 +1,77 @@
+package com.aiddbot.archetype.cli.commands;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+import com.aiddbot.archetype.cli.server.ApiServer;
+import com.aiddbot.archetype.cli.server.WeatherApi;
+
+import reactor.netty.DisposableServer;
+
+/**
+ * Spring Shell command exposing the {@code serve} command.
+ *
+ * <p>Serves the {@link WeatherApi} over HTTP from this process, so that many local callers share
+ * one warm JVM, connection pool and in-memory cache instead of each starting the CLI.
+ *
+ * <p>The API is injected lazily, so the HTTP server and client are only created when {@code
+ * serve} actually runs.
+ */
+@ShellComponent
+public class ServeCommands {
+
+  private final WeatherApi api;
+  private final CliProperties props;
+
+  public ServeCommands(@Lazy WeatherApi api, CliProperties props) {
+    this.api = api;
+    this.props = props;
+  }
+
+  /**
+   * Serve the HTTP API until the process is stopped.
+   *
+   * @param host optional address overriding {@code cli.server.host}
+   * @param port optional port overriding {@code cli.server.port}
+   * @return a confirmation line once the server stops
+   */
+  @ShellMethod(key = "serve", value = "Serve current weather as JSON over HTTP until stopped")
+  public String serve(
+      @ShellOption(help = "address to bind (defaults to cli.server.host)", defaultValue = ShellOption.NULL) String host,
+      @ShellOption(help = "port to bind (defaults to cli.server.port)", defaultValue = ShellOption.NULL) Integer port) {
+    String bindHost = host != null ? host : props.getServer().getHost();
+    int bindPort = port != null ? port : props.getServer().getPort();
+    DisposableServer server;
+    try {
+      server = ApiServer.bind(bindHost, bindPort, api.routes());
+    } catch (RuntimeException e) {
+      CodedException ce =
+          new CodedException(
+              ExitCodes.IO,
+              "serve: cannot listen on " + bindHost + ":" + bindPort + ": " + e.getMessage(),
+              e);
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+    Thread hook = new Thread(server::disposeNow, "serve-shutdown");
+    Runtime.getRuntime().addShutdownHook(hook);
+    try {
+      System.err.println("serve: listening on http://" + bindHost + ":" + server.port());
+      server.onDispose().block();
+    } finally {
+      server.disposeNow();
+      try {
+        Runtime.getRuntime().removeShutdownHook(hook);
+      } catch (IllegalStateException e) {
+        // already shutting down
+      }
+    }
+    return "serve: stopped";
+  }
+}
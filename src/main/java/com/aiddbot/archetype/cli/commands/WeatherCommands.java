@@ -1,15 +1,43 @@
 package com.aiddbot.archetype.cli.commands;
 
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.context.annotation.Lazy;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
 
+import com.aiddbot.archetype.cli.config.CliProperties;
 import com.aiddbot.archetype.cli.errors.UserFacingErrors;
 import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoClient;
 import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
 import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+import com.aiddbot.archetype.cli.location.Coordinates;
+import com.aiddbot.archetype.cli.location.CoordinatesReader;
+import com.aiddbot.archetype.cli.location.Gazetteer;
+import com.aiddbot.archetype.cli.logging.Correlation;
+import com.aiddbot.archetype.cli.metrics.CommandMetrics;
+import com.aiddbot.archetype.cli.metrics.PhaseProfile;
+import com.aiddbot.archetype.cli.metrics.StartupTimes;
 import com.aiddbot.archetype.cli.presenter.WeatherPresenter;
+import com.aiddbot.archetype.cli.runtime.BoundedTasks;
 import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Spring Shell command group exposing the {@code weather} command.
@@ -19,67 +47,410 @@ import com.aiddbot.archetype.cli.runtime.CodedException;
  *
  * <ul>
  * <li>F3.1 – Resolve approximate location via IP when coordinates are not
- * provided.
+ * provided, or via the offline {@link Gazetteer} when {@code --city} is given.
  * <li>F3.2 – Fetch current weather from Open‑Meteo given lat/lon.
  * <li>F3.3 – Present a concise, human‑readable summary.
  * <li>F3.4 – Propagate coded errors for graceful exit codes.
  * </ul>
+ *
+ * <p>
+ * {@code weather-batch} runs the same flow for many coordinates in one process.
+ * Locations are packed into multi-location Open‑Meteo requests of up to
+ * {@code cli.batch.locations-per-request} points, with up to
+ * {@code cli.batch.max-in-flight} requests open at once; each result is
+ * streamed as soon as its request completes. With
+ * {@code cli.batch.executor=virtual-threads} each location instead runs as its
+ * own blocking task on a virtual thread, capped at the same limit. Either way
+ * each request is bounded by {@code cli.network.overall-timeout-ms}, so one
+ * stuck request fails its own locations instead of the whole run.
+ *
+ * <p>
+ * With {@code --watch} both commands keep running and, every
+ * {@code --interval} seconds, print only the fields that changed; see
+ * {@link WeatherWatch}.
+ *
+ * <p>
+ * With {@code --profile} a per-phase timing breakdown is printed to stderr
+ * after the command; see {@link PhaseProfile}.
+ *
+ * <p>
+ * Both clients are injected lazily, so the HTTP stack is only built when one of
+ * these commands first runs.
  */
 @ShellComponent
 public class WeatherCommands {
 
+  /** Default of {@code --interval}, in seconds. */
+  static final String DEFAULT_INTERVAL = "60";
+
   private final IpGeoClient ipGeoClient;
   private final OpenMeteoClient openMeteoClient;
   private final WeatherPresenter presenter;
+  private final CliProperties props;
+  private final Gazetteer gazetteer;
+  private final StartupTimes startupTimes;
 
   public WeatherCommands(
-      IpGeoClient ipGeoClient, OpenMeteoClient openMeteoClient, WeatherPresenter presenter) {
+      @Lazy IpGeoClient ipGeoClient,
+      @Lazy OpenMeteoClient openMeteoClient,
+      WeatherPresenter presenter,
+      CliProperties props,
+      Gazetteer gazetteer,
+      StartupTimes startupTimes) {
     this.ipGeoClient = ipGeoClient;
     this.openMeteoClient = openMeteoClient;
     this.presenter = presenter;
+    this.props = props;
+    this.gazetteer = gazetteer;
+    this.startupTimes = startupTimes;
   }
 
   /**
-   * Show current weather for explicit coordinates or approximate IP location.
+   * Show current weather for explicit coordinates, a named city or approximate IP
+   * location.
    *
-   * @param lat optional latitude in decimal degrees
-   * @param lon optional longitude in decimal degrees
+   * @param lat  optional latitude in decimal degrees
+   * @param lon  optional longitude in decimal degrees
+   * @param city optional city name, e.g. {@code "Madrid"} or
+   *             {@code "Valencia, Venezuela"}
+   * @param watch    keep running and print only changed fields on each update
+   * @param interval seconds between updates in watch mode
+   * @param profile  print a per-phase timing breakdown to stderr
    * @return formatted one-line summary
    */
-  @ShellMethod(key = "weather", value = "Show current weather for coordinates or detected IP location")
+  @ShellMethod(key = "weather", value = "Show current weather for coordinates, a city or detected IP location")
   public String weather(
       @ShellOption(help = "latitude", defaultValue = ShellOption.NULL) Double lat,
-      @ShellOption(help = "longitude", defaultValue = ShellOption.NULL) Double lon) {
-
-    double useLat = 0.0;
-    double useLon = 0.0;
-    String locationText = null;
-
-    if (lat == null || lon == null) {
-      var ipResp = ipGeoClient.resolve();
-      useLat = ipResp.getLat();
-      useLon = ipResp.getLon();
-      // Prefer human-friendly place name when available
-      if (ipResp.getCity() != null && ipResp.getCountry() != null) {
-        locationText = String.format(
-            "approx. location: %s, %s (lat %.4f, lon %.4f)",
-            ipResp.getCity(), ipResp.getCountry(), useLat, useLon);
-      } else {
-        locationText = String.format("approx. location (lat %.4f, lon %.4f)", useLat, useLon);
+      @ShellOption(help = "longitude", defaultValue = ShellOption.NULL) Double lon,
+      @ShellOption(help = "city name, optionally as 'City, Country'", defaultValue = ShellOption.NULL) String city,
+      @ShellOption(help = "keep running and print changes every --interval seconds", defaultValue = "false") boolean watch,
+      @ShellOption(help = "seconds between updates in --watch mode", defaultValue = DEFAULT_INTERVAL) int interval,
+      @ShellOption(help = "print a per-phase timing breakdown to stderr", defaultValue = "false") boolean profile) {
+    return CommandMetrics.record(
+        "weather",
+        () -> PhaseProfile.run(
+            profile,
+            startupTimes,
+            () -> reported(() -> runWeather(lat, lon, city, watch, interval))));
+  }
+
+  /**
+   * What {@code weather} without {@code --watch} returns, for {@link CommandDispatcher}.
+   *
+   * <p>Unlike the shell command, a {@link CodedException} is not printed here: the caller reports
+   * it along with any other failure. The {@code --profile} breakdown goes to {@code err}.
+   */
+  String currentWeather(Double lat, Double lon, String city, boolean profile, PrintStream err) {
+    return CommandMetrics.record(
+        "weather",
+        () -> PhaseProfile.run(profile, startupTimes, err, () -> current(lat, lon, city)));
+  }
+
+  // Print a coded error so the user sees the cause; rethrown so the exit code mapper sees it too
+  private static String reported(Supplier<String> command) {
+    try {
+      return command.get();
+    } catch (CodedException ce) {
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+  }
+
+  private String runWeather(Double lat, Double lon, String city, boolean watch, int interval) {
+    if (!watch) {
+      return current(lat, lon, city);
+    }
+    requireOnePlace(lat, lon, city);
+    requireInterval(interval);
+    Place place = withOverallTimeout(locate(lat, lon, city)).block();
+    return watch(
+        List.of(new WeatherWatch.Target(new Coordinates(place.lat(), place.lon()), place.text())),
+        interval);
+  }
+
+  // Single reactive flow (locate -> fetch -> present); block only here at the shell boundary
+  private String current(Double lat, Double lon, String city) {
+    requireOnePlace(lat, lon, city);
+    return withOverallTimeout(
+        locate(lat, lon, city)
+            .flatMap(
+                place -> openMeteoClient
+                    .fetchCurrentAsync(place.lat(), place.lon())
+                    .map(obs -> CommandMetrics.render(() -> presenter.present(place.text(), obs)))))
+        .block();
+  }
+
+  // Bound a one-shot flow, or one batch request, by cli.network.overall-timeout-ms
+  private <T> Mono<T> withOverallTimeout(Mono<T> flow) {
+    int timeoutMs = props.getNetwork().getOverallTimeoutMs();
+    return flow
+        .timeout(
+            Duration.ofMillis(timeoutMs),
+            Mono.error(
+                () -> new CodedException(
+                    ExitCodes.NETWORK, "weather timed out after " + timeoutMs + " ms")))
+        .contextWrite(Correlation.context());
+  }
+
+  private static void requireOnePlace(Double lat, Double lon, String city) {
+    if (city != null && (lat != null || lon != null)) {
+      throw new IllegalArgumentException("use either --city or --lat/--lon, not both");
+    }
+  }
+
+  private static void requireInterval(int interval) {
+    if (interval < 1) {
+      throw new IllegalArgumentException("interval must be at least 1 second");
+    }
+  }
+
+  // Poll all targets on one shared scheduler until interrupted
+  private String watch(List<WeatherWatch.Target> targets, int intervalSeconds) {
+    Scheduler scheduler = Schedulers.newSingle("weather-watch");
+    try {
+      new WeatherWatch(openMeteoClient, presenter)
+          .updates(
+              targets,
+              Duration.ofSeconds(intervalSeconds),
+              scheduler,
+              ce -> System.err.println(UserFacingErrors.format(ce)))
+          .doOnNext(System.out::println)
+          .contextWrite(Correlation.context())
+          .blockLast();
+    } finally {
+      scheduler.dispose();
+    }
+    return "weather: watch stopped";
+  }
+
+  /** A resolved location with its display label. */
+  private record Place(double lat, double lon, String text) {}
+
+  // Resolve where to fetch weather for: city, explicit coordinates or IP location
+  private Mono<Place> locate(Double lat, Double lon, String city) {
+    if (city != null) {
+      return Mono.fromCallable(
+          () -> {
+            Gazetteer.City match = findCity(city);
+            return new Place(
+                match.lat(),
+                match.lon(),
+                String.format("%s (lat %.4f, lon %.4f)", match.label(), match.lat(), match.lon()));
+          });
+    }
+    if (lat != null && lon != null) {
+      return Mono.just(
+          new Place(lat, lon, String.format("selected location (lat %.4f, lon %.4f)", lat, lon)));
+    }
+    return ipGeoClient
+        .resolveAsync()
+        .map(
+            ipResp -> {
+              double useLat = ipResp.getLat();
+              double useLon = ipResp.getLon();
+              // Prefer human-friendly place name when available
+              String text = ipResp.getCity() != null && ipResp.getCountry() != null
+                  ? String.format(
+                      "approx. location: %s, %s (lat %.4f, lon %.4f)",
+                      ipResp.getCity(), ipResp.getCountry(), useLat, useLon)
+                  : String.format("approx. location (lat %.4f, lon %.4f)", useLat, useLon);
+              return new Place(useLat, useLon, text);
+            });
+  }
+
+  private Gazetteer.City findCity(String city) {
+    CodedException ce;
+    try {
+      Optional<Gazetteer.City> match = gazetteer.find(city);
+      if (match.isPresent()) {
+        return match.get();
       }
-    } else {
-      useLat = lat;
-      useLon = lon;
-      locationText = String.format("selected location (lat %.4f, lon %.4f)", useLat, useLon);
+      ce = new CodedException(ExitCodes.VALIDATION, "unknown city: " + city);
+    } catch (IllegalArgumentException iae) {
+      ce = new CodedException(ExitCodes.VALIDATION, iae.getMessage(), iae);
+    }
+    throw ce;
+  }
+
+  /**
+   * Show current weather for every location listed in a file or stdin.
+   *
+   * <p>
+   * Each result is printed to stdout as soon as it completes, so output order
+   * follows response order rather than input order; every line is tagged with
+   * its coordinates. Failed locations are reported on stderr and do not stop
+   * the batch.
+   *
+   * @param file        path with one {@code lat,lon} per line, or {@code -} for
+   *                    stdin
+   * @param concurrency optional override of {@code cli.batch.max-in-flight}
+   * @param watch       keep running and print only changed fields on each update
+   * @param interval    seconds between updates in watch mode
+   * @param profile     print a per-phase timing breakdown to stderr
+   * @return summary line with the number of processed locations
+   * @throws CodedException when any location failed, carrying the first
+   *                        failure's exit code
+   */
+  @ShellMethod(key = "weather-batch", value = "Show current weather for many coordinates read from a file or stdin")
+  public String weatherBatch(
+      @ShellOption(help = "file with one 'lat,lon' per line, or '-' for stdin", defaultValue = InputLines.STDIN) String file,
+      @ShellOption(help = "max concurrent requests (defaults to cli.batch.max-in-flight)", defaultValue = ShellOption.NULL) Integer concurrency,
+      @ShellOption(help = "keep running and print changes every --interval seconds", defaultValue = "false") boolean watch,
+      @ShellOption(help = "seconds between updates in --watch mode", defaultValue = DEFAULT_INTERVAL) int interval,
+      @ShellOption(help = "print a per-phase timing breakdown to stderr", defaultValue = "false") boolean profile) {
+    return CommandMetrics.record(
+        "weather-batch",
+        () -> PhaseProfile.run(
+            profile, startupTimes, () -> runWeatherBatch(file, concurrency, watch, interval)));
+  }
+
+  private String runWeatherBatch(String file, Integer concurrency, boolean watch, int interval) {
+    int maxInFlight = concurrency != null ? concurrency : props.getBatch().getMaxInFlight();
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("concurrency must be at least 1");
+    }
+
+    AtomicLong succeeded = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+    AtomicReference<CodedException> firstFailure = new AtomicReference<>();
+    BiConsumer<String, CodedException> report = (label, ce) -> {
+      failed.incrementAndGet();
+      firstFailure.compareAndSet(null, ce);
+      System.err.println(label + ": " + UserFacingErrors.format(ce));
+    };
+
+    if (watch) {
+      requireInterval(interval);
+      return watch(readTargets(file, report), interval);
     }
 
     try {
-      WeatherObservation obs = openMeteoClient.fetchCurrent(useLat, useLon);
-      return presenter.present(locationText, obs);
-    } catch (CodedException ce) {
-      String msg = UserFacingErrors.format(ce);
-      System.err.println(msg);
-      throw ce; // rethrow so application-level mapper can set exit code
+      if (props.getBatch().getExecutor() == CliProperties.Batch.Executor.VIRTUAL_THREADS) {
+        runOnVirtualThreads(file, maxInFlight, succeeded, report);
+      } else {
+        runReactive(file, maxInFlight, succeeded, report);
+      }
+    } catch (UncheckedIOException ioe) {
+      CodedException ce = new CodedException(ExitCodes.IO, ioe.getMessage(), ioe.getCause());
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+
+    if (openMeteoClient.hedger().isEnabled()) {
+      System.err.println(openMeteoClient.hedger());
+    }
+
+    long total = succeeded.get() + failed.get();
+    if (firstFailure.get() != null) {
+      CodedException ce = new CodedException(
+          firstFailure.get().getExitCode(),
+          String.format("weather-batch: %d of %d locations failed", failed.get(), total),
+          firstFailure.get());
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
     }
+    return String.format("weather-batch: %d locations processed", total);
+  }
+
+  // Watch mode needs the full location list up front; invalid lines are reported and skipped
+  private static List<WeatherWatch.Target> readTargets(
+      String file, BiConsumer<String, CodedException> report) {
+    List<WeatherWatch.Target> targets = new ArrayList<>();
+    try (Stream<String> lines = InputLines.open(file)) {
+      lines.forEach(
+          line -> {
+            try {
+              Coordinates c = CoordinatesReader.parse(line);
+              targets.add(new WeatherWatch.Target(c, c.label()));
+            } catch (IllegalArgumentException iae) {
+              report.accept(line, new CodedException(ExitCodes.VALIDATION, iae.getMessage(), iae));
+            }
+          });
+    } catch (UncheckedIOException ioe) {
+      CodedException ce = new CodedException(ExitCodes.IO, ioe.getMessage(), ioe.getCause());
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+    if (targets.isEmpty()) {
+      CodedException ce = new CodedException(ExitCodes.VALIDATION, "no valid locations to watch");
+      System.err.println(UserFacingErrors.format(ce));
+      throw ce;
+    }
+    return targets;
+  }
+
+  // Stream lines through one Reactor pipeline, packing locations into multi-location requests
+  private void runReactive(
+      String file, int maxInFlight, AtomicLong succeeded, BiConsumer<String, CodedException> report) {
+    Flux.using(() -> InputLines.open(file), Flux::fromStream, Stream::close)
+        .<Coordinates>handle(
+            (line, sink) -> {
+              try {
+                sink.next(CoordinatesReader.parse(line));
+              } catch (IllegalArgumentException iae) {
+                report.accept(line, new CodedException(ExitCodes.VALIDATION, iae.getMessage(), iae));
+              }
+            })
+        // Pack locations so each chunk becomes a single multi-location request
+        .buffer(props.getBatch().getLocationsPerRequest())
+        .flatMap(
+            chunk -> fetchChunk(chunk)
+                .onErrorResume(
+                    CodedException.class,
+                    ce -> {
+                      chunk.forEach(c -> report.accept(c.label(), ce));
+                      return Flux.empty();
+                    }),
+            maxInFlight)
+        .doOnNext(
+            out -> {
+              succeeded.incrementAndGet();
+              System.out.println(out);
+            })
+        .contextWrite(Correlation.context())
+        .blockLast();
+  }
+
+  // One virtual thread per location, each blocking on its own request
+  private void runOnVirtualThreads(
+      String file, int maxInFlight, AtomicLong succeeded, BiConsumer<String, CodedException> report) {
+    try (Stream<String> lines = InputLines.open(file)) {
+      BoundedTasks.forEach(
+          lines.iterator(),
+          maxInFlight,
+          line -> {
+            Coordinates c;
+            try {
+              c = CoordinatesReader.parse(line);
+            } catch (IllegalArgumentException iae) {
+              report.accept(line, new CodedException(ExitCodes.VALIDATION, iae.getMessage(), iae));
+              return;
+            }
+            try {
+              WeatherObservation obs =
+                  withOverallTimeout(openMeteoClient.fetchCurrentAsync(c.lat(), c.lon())).block();
+              succeeded.incrementAndGet();
+              System.out.println(CommandMetrics.render(() -> presenter.presentLine(c.label(), obs)));
+            } catch (CodedException ce) {
+              report.accept(c.label(), ce);
+            }
+          });
+    }
+  }
+
+  // Fetch one chunk as a whole so a failed or overdue request reports every location in it
+  private Flux<String> fetchChunk(List<Coordinates> chunk) {
+    return withOverallTimeout(openMeteoClient.fetchCurrentManyAsync(chunk).collectList())
+        .flatMapIterable(
+            observations -> {
+              return CommandMetrics.render(
+                  () -> {
+                    List<String> lines = new ArrayList<>(observations.size());
+                    for (int i = 0; i < observations.size(); i++) {
+                      lines.add(presenter.presentLine(chunk.get(i).label(), observations.get(i)));
+                    }
+                    return lines;
+                  });
+            });
   }
 }
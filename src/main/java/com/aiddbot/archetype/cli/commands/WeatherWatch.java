@@ -0,0 +1,90 @@
+package com.aiddbot.archetype.cli.commands;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+import com.aiddbot.archetype.cli.location.Coordinates;
+import com.aiddbot.archetype.cli.presenter.WeatherPresenter;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Polls Open‑Meteo for a fixed set of locations and emits only what changed.
+ *
+ * <p>All locations share one interval on one {@link Scheduler}; each tick issues a single batched
+ * {@link OpenMeteoClient#refreshManyAsync(List)} call over the shared, connection-pooled {@code
+ * WebClient}. A tick that fires while the previous one is still in flight is skipped rather than
+ * queued. A failed tick is reported and the watch continues with the next one.
+ */
+final class WeatherWatch {
+
+  private static final Logger log = LoggerFactory.getLogger(WeatherWatch.class);
+
+  /** A watched location with its display label. */
+  record Target(Coordinates at, String label) {}
+
+  private final OpenMeteoClient openMeteoClient;
+  private final WeatherPresenter presenter;
+
+  WeatherWatch(OpenMeteoClient openMeteoClient, WeatherPresenter presenter) {
+    this.openMeteoClient = openMeteoClient;
+    this.presenter = presenter;
+  }
+
+  /**
+   * Emit the full line for every target on the first tick, then only changed fields.
+   *
+   * @param targets locations to watch
+   * @param interval time between ticks
+   * @param scheduler scheduler driving the ticks
+   * @param onError receives the error of a failed tick
+   * @return an endless {@link Flux} of output lines; cancel it to stop watching
+   */
+  Flux<String> updates(
+      List<Target> targets,
+      Duration interval,
+      Scheduler scheduler,
+      Consumer<CodedException> onError) {
+    List<Coordinates> points = targets.stream().map(Target::at).toList();
+    return Flux.defer(
+        () -> {
+          WeatherObservation[] last = new WeatherObservation[targets.size()];
+          return Flux.interval(Duration.ZERO, interval, scheduler)
+              .onBackpressureDrop(tick -> log.debug("watch tick {} skipped, previous still running", tick))
+              .concatMap(
+                  tick ->
+                      openMeteoClient
+                          .refreshManyAsync(points)
+                          .collectList()
+                          .onErrorResume(
+                              CodedException.class,
+                              ce -> {
+                                onError.accept(ce);
+                                return Mono.empty();
+                              }),
+                  0)
+              .flatMapIterable(
+                  observations -> {
+                    List<String> lines = new ArrayList<>();
+                    for (int i = 0; i < observations.size(); i++) {
+                      WeatherObservation current = observations.get(i);
+                      presenter
+                          .presentChanges(targets.get(i).label(), last[i], current)
+                          .ifPresent(lines::add);
+                      last[i] = current;
+                    }
+                    return lines;
+                  });
+        });
+  }
+}
@@ -0,0 +1,77 @@
+package com.aiddbot.archetype.cli.config;
+
+import java.io.IOException;
+import java.time.Clock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import com.aiddbot.archetype.cli.cache.FileIpGeoCache;
+import com.aiddbot.archetype.cli.cache.IpGeoCache;
+import com.aiddbot.archetype.cli.cache.MappedObservationCache;
+import com.aiddbot.archetype.cli.cache.NetworkFingerprint;
+import com.aiddbot.archetype.cli.cache.ObservationCache;
+
+/**
+ * Provides the on-disk caches shared across CLI invocations.
+ *
+ * <p>Caching is an optimization only: when disabled via {@code cli.cache.enabled=false}, or when
+ * the cache file cannot be opened, a no-op cache is used and every lookup goes upstream.
+ *
+ * <p>Both caches are {@link Lazy}, so commands that never call an upstream do not open them.
+ */
+@Configuration
+public class CacheConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(CacheConfig.class);
+
+  /**
+   * Build the weather observation cache.
+   *
+   * @param props app configuration properties providing cache settings
+   * @return a memory-mapped cache, or {@link ObservationCache#NOOP}
+   */
+  @Bean
+  @Lazy
+  ObservationCache observationCache(CliProperties props) {
+    var cache = props.getCache();
+    if (!cache.isEnabled()) {
+      return ObservationCache.NOOP;
+    }
+    try {
+      return new MappedObservationCache(
+          MappedObservationCache.fileFor(
+              cache.getDirectory(), cache.getEntries(), cache.getGridDegrees()),
+          cache.getEntries(),
+          cache.getTtl(),
+          cache.getGridDegrees(),
+          Clock.systemUTC());
+    } catch (IOException | RuntimeException e) {
+      log.warn("observation cache unavailable, continuing without it: {}", e.toString());
+      return ObservationCache.NOOP;
+    }
+  }
+
+  /**
+   * Build the IP geolocation cache.
+   *
+   * @param props app configuration properties providing cache settings
+   * @return a file-backed cache, or {@link IpGeoCache#NOOP}
+   */
+  @Bean
+  @Lazy
+  IpGeoCache ipGeoCache(CliProperties props) {
+    var cache = props.getCache();
+    if (!cache.isEnabled()) {
+      return IpGeoCache.NOOP;
+    }
+    return new FileIpGeoCache(
+        cache.getDirectory().resolve("ip-geo.json"),
+        cache.getIpGeoTtl(),
+        Clock.systemUTC(),
+        NetworkFingerprint::current);
+  }
+}
@@ -1,11 +1,18 @@
 package com.aiddbot.archetype.cli.config;
 
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import com.aiddbot.archetype.cli.daemon.DaemonClient;
+
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
@@ -15,6 +22,11 @@ public class CliProperties {
 
   @Valid private final Network network = new Network();
   @Valid private final Endpoints endpoints = new Endpoints();
+  @Valid private final Batch batch = new Batch();
+  @Valid private final Cache cache = new Cache();
+  @Valid private final Metrics metrics = new Metrics();
+  @Valid private final Daemon daemon = new Daemon();
+  @Valid private final Server server = new Server();
 
   public Network getNetwork() {
     return network;
@@ -24,13 +36,128 @@ public class CliProperties {
     return endpoints;
   }
 
+  public Batch getBatch() {
+    return batch;
+  }
+
+  public Cache getCache() {
+    return cache;
+  }
+
+  public Metrics getMetrics() {
+    return metrics;
+  }
+
+  public Daemon getDaemon() {
+    return daemon;
+  }
+
+  public Server getServer() {
+    return server;
+  }
+
   public static class Network {
+    /** Netty channel transport for upstream connections. */
+    public enum Transport {
+      /** Native transport when its library is available for this platform, else NIO. */
+      AUTO,
+      /** JDK NIO selectors on every platform. */
+      NIO,
+      /** Native epoll; falls back to NIO with a warning when unavailable (non-Linux hosts). */
+      EPOLL
+    }
+
+    /** Byte buffer pooling for upstream connections. */
+    public enum Buffers {
+      /** Netty's default pooled allocator, sized for throughput. */
+      DEFAULT,
+      /** One small pooled arena, for short runs with few connections. */
+      SMALL
+    }
+
     @Min(1)
     private int connectTimeoutMs = 2000;
 
     @Min(1)
     private int readTimeoutMs = 2000;
 
+    @Min(1)
+    private int overallTimeoutMs = 10000;
+
+    private boolean hedgeEnabled = false;
+
+    @DecimalMin("50")
+    @DecimalMax("99.9")
+    private double hedgePercentile = 95;
+
+    @Min(1)
+    private int hedgeDelayMs = 500;
+
+    @Min(0)
+    @Max(10)
+    private int retryMaxAttempts = 2;
+
+    @Min(1)
+    private int retryBackoffMs = 200;
+
+    @Min(1)
+    private int retryMaxBackoffMs = 2000;
+
+    @DecimalMin("0")
+    @DecimalMax("1")
+    private double retryJitter = 0.5;
+
+    private boolean breakerEnabled = true;
+
+    @DecimalMin("1")
+    @DecimalMax("100")
+    private double breakerFailureRate = 50;
+
+    @Min(1)
+    @Max(1000)
+    private int breakerWindow = 20;
+
+    @Min(1)
+    private int breakerMinimumCalls = 10;
+
+    @Min(1)
+    private int breakerOpenMs = 30000;
+
+    @Min(1)
+    private int breakerHalfOpenProbes = 2;
+
+    @Min(1)
+    private int poolMaxConnections = 64;
+
+    @Min(-1)
+    private int poolPendingAcquireMax = 1000;
+
+    @Min(1)
+    private int poolPendingAcquireTimeoutMs = 10000;
+
+    @Min(1)
+    private int poolMaxIdleMs = 20000;
+
+    @Min(0)
+    private int poolEvictIntervalMs = 30000;
+
+    private boolean http2Enabled = true;
+
+    private boolean compressionEnabled = true;
+
+    private boolean dnsCacheEnabled = true;
+
+    @Min(0)
+    private int dnsCacheMaxTtlSeconds = 300;
+
+    @NotNull private Transport transport = Transport.AUTO;
+
+    @Min(0)
+    @Max(256)
+    private int eventLoopThreads = 0;
+
+    @NotNull private Buffers buffers = Buffers.DEFAULT;
+
     public int getConnectTimeoutMs() {
       return connectTimeoutMs;
     }
@@ -46,11 +173,334 @@ public class CliProperties {
     public void setReadTimeoutMs(int readTimeoutMs) {
       this.readTimeoutMs = readTimeoutMs;
     }
+
+    /**
+     * Upper bound for a whole command flow (e.g. IP resolve plus weather fetch). Override with
+     * cli.network.overall-timeout-ms or CLI_NETWORK_OVERALL_TIMEOUT_MS.
+     */
+    public int getOverallTimeoutMs() {
+      return overallTimeoutMs;
+    }
+
+    public void setOverallTimeoutMs(int overallTimeoutMs) {
+      this.overallTimeoutMs = overallTimeoutMs;
+    }
+
+    /**
+     * Whether slow upstream GETs are duplicated after the hedge delay, keeping the first answer.
+     * Override with cli.network.hedge-enabled or CLI_NETWORK_HEDGE_ENABLED.
+     */
+    public boolean isHedgeEnabled() {
+      return hedgeEnabled;
+    }
+
+    public void setHedgeEnabled(boolean hedgeEnabled) {
+      this.hedgeEnabled = hedgeEnabled;
+    }
+
+    /**
+     * Response-time percentile of recent calls used as hedge delay. Override with
+     * cli.network.hedge-percentile or CLI_NETWORK_HEDGE_PERCENTILE.
+     */
+    public double getHedgePercentile() {
+      return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+      this.hedgePercentile = hedgePercentile;
+    }
+
+    /**
+     * Hedge delay used until enough responses have been observed for the percentile. Override
+     * with cli.network.hedge-delay-ms or CLI_NETWORK_HEDGE_DELAY_MS.
+     */
+    public int getHedgeDelayMs() {
+      return hedgeDelayMs;
+    }
+
+    public void setHedgeDelayMs(int hedgeDelayMs) {
+      this.hedgeDelayMs = hedgeDelayMs;
+    }
+
+    /**
+     * Retries after a transient failure (connect/read errors, timeouts, HTTP 5xx or 429); 0 disables
+     * retries. Override with cli.network.retry-max-attempts or CLI_NETWORK_RETRY_MAX_ATTEMPTS.
+     */
+    public int getRetryMaxAttempts() {
+      return retryMaxAttempts;
+    }
+
+    public void setRetryMaxAttempts(int retryMaxAttempts) {
+      this.retryMaxAttempts = retryMaxAttempts;
+    }
+
+    /**
+     * First retry backoff, doubled on each further attempt. Override with
+     * cli.network.retry-backoff-ms or CLI_NETWORK_RETRY_BACKOFF_MS.
+     */
+    public int getRetryBackoffMs() {
+      return retryBackoffMs;
+    }
+
+    public void setRetryBackoffMs(int retryBackoffMs) {
+      this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /**
+     * Upper bound for a single retry backoff. Override with cli.network.retry-max-backoff-ms or
+     * CLI_NETWORK_RETRY_MAX_BACKOFF_MS.
+     */
+    public int getRetryMaxBackoffMs() {
+      return retryMaxBackoffMs;
+    }
+
+    public void setRetryMaxBackoffMs(int retryMaxBackoffMs) {
+      this.retryMaxBackoffMs = retryMaxBackoffMs;
+    }
+
+    /**
+     * Random spread applied to each backoff, as a fraction of it (0 to 1). Override with
+     * cli.network.retry-jitter or CLI_NETWORK_RETRY_JITTER.
+     */
+    public double getRetryJitter() {
+      return retryJitter;
+    }
+
+    public void setRetryJitter(double retryJitter) {
+      this.retryJitter = retryJitter;
+    }
+
+    /**
+     * Whether a circuit breaker fails calls fast while an upstream is degraded. Override with
+     * cli.network.breaker-enabled or CLI_NETWORK_BREAKER_ENABLED.
+     */
+    public boolean isBreakerEnabled() {
+      return breakerEnabled;
+    }
+
+    public void setBreakerEnabled(boolean breakerEnabled) {
+      this.breakerEnabled = breakerEnabled;
+    }
+
+    /**
+     * Failure rate, in percent of the recent calls, at which the breaker opens. Override with
+     * cli.network.breaker-failure-rate or CLI_NETWORK_BREAKER_FAILURE_RATE.
+     */
+    public double getBreakerFailureRate() {
+      return breakerFailureRate;
+    }
+
+    public void setBreakerFailureRate(double breakerFailureRate) {
+      this.breakerFailureRate = breakerFailureRate;
+    }
+
+    /**
+     * Number of most recent calls the failure rate is computed over. Override with
+     * cli.network.breaker-window or CLI_NETWORK_BREAKER_WINDOW.
+     */
+    public int getBreakerWindow() {
+      return breakerWindow;
+    }
+
+    public void setBreakerWindow(int breakerWindow) {
+      this.breakerWindow = breakerWindow;
+    }
+
+    /**
+     * Calls needed in the window before the breaker may open. Override with
+     * cli.network.breaker-minimum-calls or CLI_NETWORK_BREAKER_MINIMUM_CALLS.
+     */
+    public int getBreakerMinimumCalls() {
+      return breakerMinimumCalls;
+    }
+
+    public void setBreakerMinimumCalls(int breakerMinimumCalls) {
+      this.breakerMinimumCalls = breakerMinimumCalls;
+    }
+
+    /**
+     * How long the breaker fails fast before letting probe calls through. Override with
+     * cli.network.breaker-open-ms or CLI_NETWORK_BREAKER_OPEN_MS.
+     */
+    public int getBreakerOpenMs() {
+      return breakerOpenMs;
+    }
+
+    public void setBreakerOpenMs(int breakerOpenMs) {
+      this.breakerOpenMs = breakerOpenMs;
+    }
+
+    /**
+     * Probe calls that must succeed before the breaker closes again. Override with
+     * cli.network.breaker-half-open-probes or CLI_NETWORK_BREAKER_HALF_OPEN_PROBES.
+     */
+    public int getBreakerHalfOpenProbes() {
+      return breakerHalfOpenProbes;
+    }
+
+    public void setBreakerHalfOpenProbes(int breakerHalfOpenProbes) {
+      this.breakerHalfOpenProbes = breakerHalfOpenProbes;
+    }
+
+    /**
+     * Connections kept per upstream host in the shared pool. Override with
+     * cli.network.pool-max-connections or CLI_NETWORK_POOL_MAX_CONNECTIONS.
+     */
+    public int getPoolMaxConnections() {
+      return poolMaxConnections;
+    }
+
+    public void setPoolMaxConnections(int poolMaxConnections) {
+      this.poolMaxConnections = poolMaxConnections;
+    }
+
+    /**
+     * Requests that may wait for a free pooled connection; -1 for no limit. Override with
+     * cli.network.pool-pending-acquire-max or CLI_NETWORK_POOL_PENDING_ACQUIRE_MAX.
+     */
+    public int getPoolPendingAcquireMax() {
+      return poolPendingAcquireMax;
+    }
+
+    public void setPoolPendingAcquireMax(int poolPendingAcquireMax) {
+      this.poolPendingAcquireMax = poolPendingAcquireMax;
+    }
+
+    /**
+     * How long a request waits for a free pooled connection before failing. Override with
+     * cli.network.pool-pending-acquire-timeout-ms or CLI_NETWORK_POOL_PENDING_ACQUIRE_TIMEOUT_MS.
+     */
+    public int getPoolPendingAcquireTimeoutMs() {
+      return poolPendingAcquireTimeoutMs;
+    }
+
+    public void setPoolPendingAcquireTimeoutMs(int poolPendingAcquireTimeoutMs) {
+      this.poolPendingAcquireTimeoutMs = poolPendingAcquireTimeoutMs;
+    }
+
+    /**
+     * Idle time after which a pooled connection is closed; keep it below the upstreams' keep-alive
+     * timeout. Override with cli.network.pool-max-idle-ms or CLI_NETWORK_POOL_MAX_IDLE_MS.
+     */
+    public int getPoolMaxIdleMs() {
+      return poolMaxIdleMs;
+    }
+
+    public void setPoolMaxIdleMs(int poolMaxIdleMs) {
+      this.poolMaxIdleMs = poolMaxIdleMs;
+    }
+
+    /**
+     * Interval of the background sweep closing idle connections; 0 only checks on acquire.
+     * Override with cli.network.pool-evict-interval-ms or CLI_NETWORK_POOL_EVICT_INTERVAL_MS.
+     */
+    public int getPoolEvictIntervalMs() {
+      return poolEvictIntervalMs;
+    }
+
+    public void setPoolEvictIntervalMs(int poolEvictIntervalMs) {
+      this.poolEvictIntervalMs = poolEvictIntervalMs;
+    }
+
+    /**
+     * Whether HTTPS upstreams are offered HTTP/2 via ALPN, falling back to HTTP/1.1; plain HTTP
+     * always uses HTTP/1.1. Override with cli.network.http2-enabled or CLI_NETWORK_HTTP2_ENABLED.
+     */
+    public boolean isHttp2Enabled() {
+      return http2Enabled;
+    }
+
+    public void setHttp2Enabled(boolean http2Enabled) {
+      this.http2Enabled = http2Enabled;
+    }
+
+    /**
+     * Whether gzip responses are requested and decompressed. Override with
+     * cli.network.compression-enabled or CLI_NETWORK_COMPRESSION_ENABLED.
+     */
+    public boolean isCompressionEnabled() {
+      return compressionEnabled;
+    }
+
+    public void setCompressionEnabled(boolean compressionEnabled) {
+      this.compressionEnabled = compressionEnabled;
+    }
+
+    /**
+     * Whether host names are resolved by Netty's asynchronous, caching DNS resolver instead of the
+     * JDK resolver. Override with cli.network.dns-cache-enabled or CLI_NETWORK_DNS_CACHE_ENABLED.
+     */
+    public boolean isDnsCacheEnabled() {
+      return dnsCacheEnabled;
+    }
+
+    public void setDnsCacheEnabled(boolean dnsCacheEnabled) {
+      this.dnsCacheEnabled = dnsCacheEnabled;
+    }
+
+    /**
+     * Upper bound for how long a DNS answer is cached, whatever its TTL. Override with
+     * cli.network.dns-cache-max-ttl-seconds or CLI_NETWORK_DNS_CACHE_MAX_TTL_SECONDS.
+     */
+    public int getDnsCacheMaxTtlSeconds() {
+      return dnsCacheMaxTtlSeconds;
+    }
+
+    public void setDnsCacheMaxTtlSeconds(int dnsCacheMaxTtlSeconds) {
+      this.dnsCacheMaxTtlSeconds = dnsCacheMaxTtlSeconds;
+    }
+
+    /**
+     * Channel transport: auto, nio or epoll. Override with cli.network.transport or
+     * CLI_NETWORK_TRANSPORT.
+     */
+    public Transport getTransport() {
+      return transport;
+    }
+
+    public void setTransport(Transport transport) {
+      this.transport = transport;
+    }
+
+    /**
+     * Event-loop threads for upstream I/O; 0 uses one per core (at least 4). Override with
+     * cli.network.event-loop-threads or CLI_NETWORK_EVENT_LOOP_THREADS.
+     */
+    public int getEventLoopThreads() {
+      return eventLoopThreads;
+    }
+
+    public void setEventLoopThreads(int eventLoopThreads) {
+      this.eventLoopThreads = eventLoopThreads;
+    }
+
+    /**
+     * Buffer pooling: default or small. Override with cli.network.buffers or CLI_NETWORK_BUFFERS.
+     */
+    public Buffers getBuffers() {
+      return buffers;
+    }
+
+    public void setBuffers(Buffers buffers) {
+      this.buffers = buffers;
+    }
   }
 
   public static class Endpoints {
+    /** Where {@code IpGeoClient} resolves locations. */
+    public enum IpGeoBackend {
+      /** Remote ip-api.com service. */
+      REMOTE,
+      /** Local range database file, see {@link #getIpGeoDatabase()}. */
+      OFFLINE
+    }
+
     @NotNull private URI ipGeoBaseUrl = URI.create("http://ip-api.com/json");
+    @NotNull private URI ipGeoBatchUrl = URI.create("http://ip-api.com/batch");
     @NotNull private URI openMeteoBaseUrl = URI.create("https://api.open-meteo.com/v1/forecast");
+    @NotNull private IpGeoBackend ipGeoBackend = IpGeoBackend.REMOTE;
+    private Path ipGeoDatabase;
+    private String publicIp;
 
     /**
      * Base URL for the IP Geolocation service (ip-api). Override with cli.endpoints.ip-geo-base-url
@@ -64,6 +514,18 @@ public class CliProperties {
       this.ipGeoBaseUrl = ipGeoBaseUrl;
     }
 
+    /**
+     * Batch endpoint of the IP Geolocation service, accepting up to 100 addresses per POST.
+     * Override with cli.endpoints.ip-geo-batch-url or CLI_ENDPOINTS_IP_GEO_BATCH_URL.
+     */
+    public URI getIpGeoBatchUrl() {
+      return ipGeoBatchUrl;
+    }
+
+    public void setIpGeoBatchUrl(URI ipGeoBatchUrl) {
+      this.ipGeoBatchUrl = ipGeoBatchUrl;
+    }
+
     /**
      * Base URL for the Open‑Meteo service. Override with cli.endpoints.open-meteo-base-url or
      * CLI_ENDPOINTS_OPEN_METEO_BASE_URL.
@@ -75,5 +537,282 @@ public class CliProperties {
     public void setOpenMeteoBaseUrl(URI openMeteoBaseUrl) {
       this.openMeteoBaseUrl = openMeteoBaseUrl;
     }
+
+    /**
+     * IP geolocation backend, {@code remote} (default) or {@code offline}. Override with
+     * cli.endpoints.ip-geo-backend or CLI_ENDPOINTS_IP_GEO_BACKEND.
+     */
+    public IpGeoBackend getIpGeoBackend() {
+      return ipGeoBackend;
+    }
+
+    public void setIpGeoBackend(IpGeoBackend ipGeoBackend) {
+      this.ipGeoBackend = ipGeoBackend;
+    }
+
+    /**
+     * CSV range database used by the {@code offline} backend. Override with
+     * cli.endpoints.ip-geo-database or CLI_ENDPOINTS_IP_GEO_DATABASE.
+     */
+    public Path getIpGeoDatabase() {
+      return ipGeoDatabase;
+    }
+
+    public void setIpGeoDatabase(Path ipGeoDatabase) {
+      this.ipGeoDatabase = ipGeoDatabase;
+    }
+
+    /**
+     * Public IPv4 address looked up by the {@code offline} backend; when unset, the first public
+     * address of a local interface is used. Override with cli.endpoints.public-ip or
+     * CLI_ENDPOINTS_PUBLIC_IP.
+     */
+    public String getPublicIp() {
+      return publicIp;
+    }
+
+    public void setPublicIp(String publicIp) {
+      this.publicIp = publicIp;
+    }
+  }
+
+  public static class Batch {
+    /** How batch commands schedule their upstream calls. */
+    public enum Executor {
+      /** Non-blocking Reactor pipeline packing locations into multi-location requests. */
+      REACTIVE,
+      /** One virtual thread per location, each blocking on its own request. */
+      VIRTUAL_THREADS
+    }
+
+    @Min(1)
+    @Max(1024)
+    private int maxInFlight = 16;
+
+    @NotNull private Executor executor = Executor.REACTIVE;
+
+    @Min(1)
+    @Max(1000)
+    private int locationsPerRequest = 100;
+
+    /**
+     * Maximum number of concurrent upstream requests issued by batch commands; with the {@code
+     * virtual-threads} executor this caps the number of running tasks. Override with
+     * cli.batch.max-in-flight or CLI_BATCH_MAX_IN_FLIGHT.
+     */
+    public int getMaxInFlight() {
+      return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+      this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Maximum number of coordinates packed into one multi-location Open‑Meteo request. Override
+     * with cli.batch.locations-per-request or CLI_BATCH_LOCATIONS_PER_REQUEST.
+     */
+    public int getLocationsPerRequest() {
+      return locationsPerRequest;
+    }
+
+    public void setLocationsPerRequest(int locationsPerRequest) {
+      this.locationsPerRequest = locationsPerRequest;
+    }
+
+    /**
+     * Batch execution model, {@code reactive} (default) or {@code virtual-threads}. Override with
+     * cli.batch.executor or CLI_BATCH_EXECUTOR.
+     */
+    public Executor getExecutor() {
+      return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+      this.executor = executor;
+    }
+  }
+
+  public static class Cache {
+    private boolean enabled = true;
+
+    @NotNull
+    private Path directory = Path.of(System.getProperty("user.home"), ".cache", "archetype-java-cli");
+
+    @NotNull private Duration ttl = Duration.ofMinutes(5);
+
+    @NotNull private Duration ipGeoTtl = Duration.ofHours(1);
+
+    @DecimalMin("0.00001")
+    private double gridDegrees = 0.01;
+
+    @Min(1)
+    @Max(1048576)
+    private int entries = 16384;
+
+    /**
+     * Whether the on-disk caches are used. Override with cli.cache.enabled or CLI_CACHE_ENABLED.
+     */
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    /**
+     * Directory holding cache files shared by all CLI processes of the user. Override with
+     * cli.cache.directory or CLI_CACHE_DIRECTORY.
+     */
+    public Path getDirectory() {
+      return directory;
+    }
+
+    public void setDirectory(Path directory) {
+      this.directory = directory;
+    }
+
+    /**
+     * Maximum age of a cached weather observation. Override with cli.cache.ttl or CLI_CACHE_TTL.
+     */
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+
+    /**
+     * Maximum age of the cached IP geolocation; it is also dropped as soon as the host's network
+     * changes. Override with cli.cache.ip-geo-ttl or CLI_CACHE_IP_GEO_TTL.
+     */
+    public Duration getIpGeoTtl() {
+      return ipGeoTtl;
+    }
+
+    public void setIpGeoTtl(Duration ipGeoTtl) {
+      this.ipGeoTtl = ipGeoTtl;
+    }
+
+    /**
+     * Coordinate quantization step in decimal degrees; points in the same cell share an entry.
+     * Override with cli.cache.grid-degrees or CLI_CACHE_GRID_DEGREES.
+     */
+    public double getGridDegrees() {
+      return gridDegrees;
+    }
+
+    public void setGridDegrees(double gridDegrees) {
+      this.gridDegrees = gridDegrees;
+    }
+
+    /**
+     * Number of slots in the observation cache file. Override with cli.cache.entries or
+     * CLI_CACHE_ENTRIES.
+     */
+    public int getEntries() {
+      return entries;
+    }
+
+    public void setEntries(int entries) {
+      this.entries = entries;
+    }
+  }
+
+  public static class Metrics {
+    private Path dumpFile;
+
+    /**
+     * File the metrics snapshot is written to when the CLI exits; unset disables the dump.
+     * Override with cli.metrics.dump-file or CLI_METRICS_DUMP_FILE.
+     */
+    public Path getDumpFile() {
+      return dumpFile;
+    }
+
+    public void setDumpFile(Path dumpFile) {
+      this.dumpFile = dumpFile;
+    }
+  }
+
+  public static class Daemon {
+    @NotNull private Path socket = DaemonClient.defaultSocket();
+
+    @Min(1)
+    private int requestTimeoutMs = 5000;
+
+    /**
+     * Unix domain socket the daemon listens on and thin clients connect to. Override with
+     * cli.daemon.socket or CLI_DAEMON_SOCKET.
+     */
+    public Path getSocket() {
+      return socket;
+    }
+
+    public void setSocket(Path socket) {
+      this.socket = socket;
+    }
+
+    /**
+     * How long a connected client may take to send its command line before the daemon drops it.
+     * Override with cli.daemon.request-timeout-ms or CLI_DAEMON_REQUEST_TIMEOUT_MS.
+     */
+    public int getRequestTimeoutMs() {
+      return requestTimeoutMs;
+    }
+
+    public void setRequestTimeoutMs(int requestTimeoutMs) {
+      this.requestTimeoutMs = requestTimeoutMs;
+    }
+  }
+
+  public static class Server {
+    @NotNull private String host = "127.0.0.1";
+
+    @Min(0)
+    @Max(65535)
+    private int port = 8080;
+
+    @Min(1)
+    @Max(1048576)
+    private int cacheEntries = 4096;
+
+    /**
+     * Address the HTTP API server binds to; loopback by default. Override with cli.server.host or
+     * CLI_SERVER_HOST.
+     */
+    public String getHost() {
+      return host;
+    }
+
+    public void setHost(String host) {
+      this.host = host;
+    }
+
+    /**
+     * Port of the HTTP API server; 0 picks a free port. Override with cli.server.port or
+     * CLI_SERVER_PORT.
+     */
+    public int getPort() {
+      return port;
+    }
+
+    public void setPort(int port) {
+      this.port = port;
+    }
+
+    /**
+     * Grid cells whose latest observation the server keeps in memory, for cli.cache.ttl. Override
+     * with cli.server.cache-entries or CLI_SERVER_CACHE_ENTRIES.
+     */
+    public int getCacheEntries() {
+      return cacheEntries;
+    }
+
+    public void setCacheEntries(int cacheEntries) {
+      this.cacheEntries = cacheEntries;
+    }
   }
 }
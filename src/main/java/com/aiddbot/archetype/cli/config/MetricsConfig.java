@@ -0,0 +1,87 @@
+package com.aiddbot.archetype.cli.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.aiddbot.archetype.cli.metrics.MetricsSnapshot;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Provides the in-process Micrometer registry.
+ *
+ * <p>The registry is added to {@link Metrics#globalRegistry}, which is where Reactor Netty publishes
+ * its client metrics (connect, TLS handshake, response time, DNS) and where the CLI's own timers
+ * and counters are recorded. Every timer keeps p50, p95 and p99.
+ *
+ * <p>With {@code cli.metrics.dump-file} set, a snapshot is written to that file when the
+ * application context closes.
+ */
+@Configuration
+public class MetricsConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(MetricsConfig.class);
+
+  /**
+   * Build the registry and attach it to the global registry.
+   *
+   * @return a simple in-memory registry
+   */
+  @Bean
+  MeterRegistry meterRegistry() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    registry
+        .config()
+        .meterFilter(
+            new MeterFilter() {
+              @Override
+              public DistributionStatisticConfig configure(
+                  Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER) {
+                  return config;
+                }
+                return DistributionStatisticConfig.builder()
+                    .percentiles(0.5, 0.95, 0.99)
+                    .build()
+                    .merge(config);
+              }
+            });
+    Metrics.addRegistry(registry);
+    return registry;
+  }
+
+  /**
+   * Write the metrics snapshot on shutdown when {@code cli.metrics.dump-file} is set.
+   *
+   * @param registry the application registry
+   * @param props app configuration properties providing the dump file
+   * @return a shutdown callback
+   */
+  @Bean
+  DisposableBean metricsDumpOnExit(MeterRegistry registry, CliProperties props) {
+    return () -> {
+      Path file = props.getMetrics().getDumpFile();
+      if (file != null) {
+        try {
+          Files.writeString(file, MetricsSnapshot.render(registry), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+          log.warn("cannot write metrics to {}: {}", file, e.toString());
+        }
+      }
+      Metrics.removeRegistry(registry);
+    };
+  }
+}
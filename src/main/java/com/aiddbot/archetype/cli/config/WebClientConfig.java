@@ -9,13 +9,20 @@ import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.aiddbot.archetype.cli.diagnostics.FlightRecorderFilter;
+
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
 /**
  * Provides a singleton {@link WebClient} preconfigured for outbound HTTP calls.
@@ -24,6 +31,14 @@ import reactor.netty.http.client.HttpClient;
  *
  * <ul>
  *   <li>Connect timeout and read/response timeout sourced from {@link CliProperties}.
+ *   <li>A named, bounded {@link ConnectionProvider} shared by all upstreams, so batch runs reuse
+ *       keep-alive connections; idle connections are evicted before upstreams drop them.
+ *   <li>HTTP/2 negotiated via ALPN on HTTPS, gzip response compression and a caching DNS
+ *       resolver, each switchable in {@link CliProperties.Network}.
+ *   <li>Dedicated, configurable event loops on the native epoll transport where available, and an
+ *       optional small buffer pool for one-shot runs.
+ *   <li>Reactor Netty client metrics published to Micrometer (see {@link MetricsConfig}).
+ *   <li>One JDK Flight Recorder event per exchange (see {@link FlightRecorderFilter}).
  *   <li>Default headers:
  *       <ul>
  *         <li><code>Accept: application/json</code>
@@ -32,31 +47,85 @@ import reactor.netty.http.client.HttpClient;
  *             <code>dev</code> in tests/local builds.
  *       </ul>
  * </ul>
+ *
+ * <p>All beans here are {@link Lazy}: Reactor Netty is only loaded when the first upstream call is
+ * made, so commands such as {@code version} or {@code help} start without it. Spring Boot's own
+ * Reactor Netty resources are excluded in {@code application.properties} for the same reason.
  */
 @Configuration
 public class WebClientConfig {
 
   private static final Logger log = LoggerFactory.getLogger(WebClientConfig.class);
 
+  /** Name of the upstream connection pool, used in its metrics. */
+  static final String POOL_NAME = "cli-upstream";
+
+  /** Prefix of the event-loop thread names. */
+  static final String LOOP_PREFIX = "cli-http";
+
+  /**
+   * Event loops and connection pool for all upstream I/O, disposed with the context.
+   *
+   * <p>Exposed as one bean rather than two: after start-up Spring reflects over the methods of
+   * every bean type, lazy ones included, and those of {@link LoopResources} and {@link
+   * ConnectionProvider} would load Netty's own classes on every start.
+   *
+   * @param loops upstream event loops
+   * @param connections upstream connection pool
+   */
+  record UpstreamResources(LoopResources loops, ConnectionProvider connections) {
+
+    void dispose() {
+      connections.dispose();
+      loops.dispose();
+    }
+  }
+
+  /**
+   * Event loops and connection pool for all upstream calls.
+   *
+   * @param props app configuration properties providing loop and pool sizing
+   * @return resources disposed with the context
+   */
+  @Bean(destroyMethod = "dispose")
+  @Lazy
+  UpstreamResources upstreamResources(CliProperties props) {
+    CliProperties.Network network = props.getNetwork();
+    int threads = network.getEventLoopThreads();
+    LoopResources loops =
+        LoopResources.create(
+            LOOP_PREFIX, threads > 0 ? threads : LoopResources.DEFAULT_IO_WORKER_COUNT, true);
+    ConnectionProvider connections =
+        ConnectionProvider.builder(POOL_NAME)
+            .maxConnections(network.getPoolMaxConnections())
+            .pendingAcquireMaxCount(network.getPoolPendingAcquireMax())
+            .pendingAcquireTimeout(Duration.ofMillis(network.getPoolPendingAcquireTimeoutMs()))
+            .maxIdleTime(Duration.ofMillis(network.getPoolMaxIdleMs()))
+            .evictInBackground(Duration.ofMillis(network.getPoolEvictIntervalMs()))
+            .metrics(true)
+            .build();
+    return new UpstreamResources(loops, connections);
+  }
+
   /**
    * Build the application {@link WebClient} instance.
    *
    * @param props app configuration properties providing network timeouts
+   * @param upstream upstream event loops and connection pool
    * @param buildProps optional Spring Boot build properties to resolve version for User-Agent
    * @return a configured WebClient ready for JSON APIs
    */
   @Bean
-  WebClient webClient(CliProperties props, ObjectProvider<BuildProperties> buildProps) {
-    int connectMs = props.getNetwork().getConnectTimeoutMs();
-    int readMs = props.getNetwork().getReadTimeoutMs();
+  @Lazy
+  WebClient webClient(
+      CliProperties props,
+      UpstreamResources upstream,
+      ObjectProvider<BuildProperties> buildProps) {
+    CliProperties.Network network = props.getNetwork();
+    int connectMs = network.getConnectTimeoutMs();
+    int readMs = network.getReadTimeoutMs();
     var endpoints = props.getEndpoints();
-
-    HttpClient httpClient =
-        HttpClient.create()
-            // Connect timeout
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectMs)
-            // Read/response timeout
-            .responseTimeout(Duration.ofMillis(readMs));
+    HttpClient httpClient = httpClient(network, upstream);
 
     String version = resolveVersion(buildProps);
     String userAgent = "ArchetypeJavaCLI/" + version;
@@ -64,6 +133,7 @@ public class WebClientConfig {
     WebClient client =
         WebClient.builder()
             .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .filter(new FlightRecorderFilter())
             .defaultHeaders(
                 headers -> {
                   headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -71,9 +141,19 @@ public class WebClientConfig {
                 })
             .build();
     log.info(
-        "WebClient configured: connectTimeoutMs={}, readTimeoutMs={}, userAgent={}, ipGeoBaseUrl={}, openMeteoBaseUrl={}",
+        "WebClient configured: connectTimeoutMs={}, readTimeoutMs={}, transport={}, eventLoopThreads={}, buffers={}, maxConnections={}, http2={}, compression={}, dnsCache={}, userAgent={}, ipGeoBaseUrl={}, openMeteoBaseUrl={}",
         connectMs,
         readMs,
+        network.getTransport() != CliProperties.Network.Transport.NIO
+                && LoopResources.hasNativeSupport()
+            ? "native"
+            : "nio",
+        network.getEventLoopThreads(),
+        network.getBuffers(),
+        network.getPoolMaxConnections(),
+        network.isHttp2Enabled(),
+        network.isCompressionEnabled(),
+        network.isDnsCacheEnabled(),
         userAgent,
         endpoints.getIpGeoBaseUrl(),
         endpoints.getOpenMeteoBaseUrl());
@@ -81,6 +161,64 @@ public class WebClientConfig {
     return client;
   }
 
+  /**
+   * Reactor Netty client behind the {@link WebClient}, on the shared loops and pool.
+   *
+   * @param network timeouts and protocol switches
+   * @param upstream upstream event loops and connection pool
+   * @return the configured client
+   */
+  static HttpClient httpClient(CliProperties.Network network, UpstreamResources upstream) {
+    HttpClient httpClient =
+        HttpClient.create(upstream.connections())
+            .runOn(upstream.loops(), preferNative(network.getTransport()))
+            // Connect timeout
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, network.getConnectTimeoutMs())
+            // Read/response timeout
+            .responseTimeout(Duration.ofMillis(network.getReadTimeoutMs()))
+            // Connect, TLS, DNS and response-time metrics to the global Micrometer registry;
+            // query strings are dropped so coordinates do not become tag values
+            .metrics(true, WebClientConfig::stripQuery)
+            // Accept-Encoding: gzip, decompressed transparently
+            .compress(network.isCompressionEnabled());
+    if (network.getBuffers() == CliProperties.Network.Buffers.SMALL) {
+      // One arena each for heap and direct buffers, 1 MiB chunks instead of Netty's 4 MiB, small
+      // thread caches only on event-loop threads
+      httpClient =
+          httpClient.option(
+              ChannelOption.ALLOCATOR,
+              new PooledByteBufAllocator(true, 1, 1, 8192, 7, 64, 16, false));
+    }
+    if (network.isHttp2Enabled()) {
+      // ALPN picks h2 on HTTPS when the server offers it; plain HTTP stays on HTTP/1.1
+      httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+    }
+    if (network.isDnsCacheEnabled()) {
+      // Netty's non-blocking resolver caches answers for their TTL, capped here
+      Duration maxTtl = Duration.ofSeconds(network.getDnsCacheMaxTtlSeconds());
+      httpClient = httpClient.resolver(spec -> spec.cacheMaxTimeToLive(maxTtl));
+    }
+    return httpClient;
+  }
+
+  private static boolean preferNative(CliProperties.Network.Transport transport) {
+    return switch (transport) {
+      case NIO -> false;
+      case AUTO -> true;
+      case EPOLL -> {
+        if (!LoopResources.hasNativeSupport()) {
+          log.warn("cli.network.transport=epoll but native epoll is not available; using NIO");
+        }
+        yield true;
+      }
+    };
+  }
+
+  private static String stripQuery(String uri) {
+    int q = uri.indexOf('?');
+    return q < 0 ? uri : uri.substring(0, q);
+  }
+
   /**
    * Resolve the application version for the User-Agent header.
    *
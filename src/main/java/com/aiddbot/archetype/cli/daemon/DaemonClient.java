@@ -0,0 +1,252 @@
+package com.aiddbot.archetype.cli.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ProtocolException;
+import java.net.SocketTimeoutException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.aiddbot.archetype.cli.commands.CommandRequest;
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+/**
+ * Thin client for a running {@code daemon}: forwards the command line over the Unix domain socket,
+ * copies the streamed stdout and stderr and exits with the daemon's exit code.
+ *
+ * <p>Uses only the JDK, so it starts without Spring. The socket is taken from {@code
+ * cli.daemon.socket} (system property) or {@code CLI_DAEMON_SOCKET}, else {@link #defaultSocket()}.
+ * When the daemon sends nothing for {@code cli.daemon.read-timeout-ms} or {@code
+ * CLI_DAEMON_READ_TIMEOUT_MS} (default {@link #DEFAULT_READ_TIMEOUT}), the client gives up with
+ * {@link ExitCodes#NETWORK}.
+ */
+public final class DaemonClient {
+
+  /** How long to wait for the daemon's next output when no read timeout is configured. */
+  public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+
+  private DaemonClient() {}
+
+  /**
+   * Run the command line on the daemon and exit with its exit code.
+   *
+   * @param args command line to forward
+   */
+  public static void main(String[] args) {
+    Path socket = configuredSocket().orElse(defaultSocket());
+    try {
+      System.exit(run(socket, List.of(args), System.out, System.err));
+    } catch (SocketTimeoutException e) {
+      System.err.println(UserFacingErrors.format(e));
+      System.exit(ExitCodes.NETWORK.code());
+    } catch (IOException e) {
+      System.err.println("ERROR: daemon not reachable on " + socket + ": " + e.getMessage());
+      System.exit(ExitCodes.IO.code());
+    }
+  }
+
+  /**
+   * Forward the command line when a daemon socket is configured and the daemon can serve it.
+   *
+   * <p>Returns empty, so that the caller runs the command itself, when no socket is configured,
+   * nothing listens on it, or the command line is not one the daemon runs.
+   *
+   * @param args command line arguments
+   * @return the daemon's exit code, or empty
+   */
+  public static OptionalInt tryRun(String[] args) {
+    List<String> argv = List.of(args);
+    Optional<Path> socket = configuredSocket();
+    if (socket.isEmpty() || !Files.exists(socket.get()) || CommandRequest.parse(argv).isEmpty()) {
+      return OptionalInt.empty();
+    }
+    SocketChannel channel;
+    try {
+      channel = SocketChannel.open(UnixDomainSocketAddress.of(socket.get()));
+    } catch (IOException e) {
+      return OptionalInt.empty();
+    }
+    try (channel) {
+      return OptionalInt.of(
+          exchange(channel, argv, configuredReadTimeout(), System.out, System.err));
+    } catch (SocketTimeoutException e) {
+      System.err.println(UserFacingErrors.format(e));
+      return OptionalInt.of(ExitCodes.NETWORK.code());
+    } catch (IOException e) {
+      System.err.println(UserFacingErrors.format(e));
+      return OptionalInt.of(ExitCodes.IO.code());
+    }
+  }
+
+  /**
+   * Run a command line on the daemon listening on {@code socket}, with the configured read timeout.
+   *
+   * @param socket daemon socket
+   * @param argv command line
+   * @param out receives the command's stdout
+   * @param err receives the command's stderr
+   * @return the daemon's exit code
+   * @throws SocketTimeoutException when the daemon sends nothing within the read timeout
+   * @throws IOException when the daemon cannot be reached or the connection breaks
+   */
+  public static int run(Path socket, List<String> argv, PrintStream out, PrintStream err)
+      throws IOException {
+    return run(socket, argv, configuredReadTimeout(), out, err);
+  }
+
+  /**
+   * Run a command line on the daemon listening on {@code socket}.
+   *
+   * @param socket daemon socket
+   * @param argv command line
+   * @param readTimeout longest wait for the daemon's next output
+   * @param out receives the command's stdout
+   * @param err receives the command's stderr
+   * @return the daemon's exit code
+   * @throws SocketTimeoutException when the daemon sends nothing within {@code readTimeout}
+   * @throws IOException when the daemon cannot be reached or the connection breaks
+   */
+  public static int run(
+      Path socket, List<String> argv, Duration readTimeout, PrintStream out, PrintStream err)
+      throws IOException {
+    try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+      return exchange(channel, argv, readTimeout, out, err);
+    }
+  }
+
+  /** Default socket path, per user in the temporary directory. */
+  public static Path defaultSocket() {
+    return Path.of(
+        System.getProperty("java.io.tmpdir"),
+        "archetype-java-cli-" + System.getProperty("user.name") + ".sock");
+  }
+
+  private static Optional<Path> configuredSocket() {
+    String value = System.getProperty("cli.daemon.socket", System.getenv("CLI_DAEMON_SOCKET"));
+    return value == null || value.isBlank() ? Optional.empty() : Optional.of(Path.of(value));
+  }
+
+  private static Duration configuredReadTimeout() {
+    String value =
+        System.getProperty(
+            "cli.daemon.read-timeout-ms", System.getenv("CLI_DAEMON_READ_TIMEOUT_MS"));
+    if (value == null || value.isBlank()) {
+      return DEFAULT_READ_TIMEOUT;
+    }
+    try {
+      long millis = Long.parseLong(value.trim());
+      return millis > 0 ? Duration.ofMillis(millis) : DEFAULT_READ_TIMEOUT;
+    } catch (NumberFormatException e) {
+      return DEFAULT_READ_TIMEOUT;
+    }
+  }
+
+  // Blocking channel reads cannot time out, so the channel is closed when a frame is overdue
+  private static int exchange(
+      SocketChannel channel,
+      List<String> argv,
+      Duration readTimeout,
+      PrintStream out,
+      PrintStream err)
+      throws IOException {
+    Frames.writeRequest(
+        new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel))), argv);
+    DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+    byte[] buffer = new byte[8192];
+    AtomicBoolean expired = new AtomicBoolean();
+    ScheduledExecutorService timer =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("daemon-client-timeout").daemon().factory());
+    try {
+      while (true) {
+        ScheduledFuture<?> deadline =
+            timer.schedule(
+                () -> {
+                  expired.set(true);
+                  try {
+                    channel.close();
+                  } catch (IOException e) {
+                    // the read fails either way
+                  }
+                },
+                readTimeout.toMillis(),
+                TimeUnit.MILLISECONDS);
+        OptionalInt exit;
+        try {
+          exit = readFrame(in, out, err, buffer);
+        } catch (IOException e) {
+          deadline.cancel(false);
+          throw expired.get() ? timedOut(readTimeout) : e;
+        }
+        deadline.cancel(false);
+        if (expired.get()) {
+          throw timedOut(readTimeout);
+        }
+        if (exit.isPresent()) {
+          out.flush();
+          err.flush();
+          return exit.getAsInt();
+        }
+      }
+    } finally {
+      timer.shutdownNow();
+    }
+  }
+
+  private static SocketTimeoutException timedOut(Duration readTimeout) {
+    return new SocketTimeoutException("daemon sent nothing for " + readTimeout.toMillis() + " ms");
+  }
+
+  // Copy one output frame, or return the exit code carried by the last one
+  private static OptionalInt readFrame(
+      DataInputStream in, PrintStream out, PrintStream err, byte[] buffer) throws IOException {
+    byte kind;
+    try {
+      kind = in.readByte();
+    } catch (EOFException e) {
+      throw new EOFException("daemon closed the connection before the command finished");
+    }
+    switch (kind) {
+      case Frames.STDOUT -> copy(in, out, buffer);
+      case Frames.STDERR -> copy(in, err, buffer);
+      case Frames.EXIT -> {
+        return OptionalInt.of(in.readInt());
+      }
+      default -> throw new ProtocolException("unexpected frame " + kind);
+    }
+    return OptionalInt.empty();
+  }
+
+  private static void copy(DataInputStream in, PrintStream target, byte[] buffer)
+      throws IOException {
+    int remaining = in.readInt();
+    while (remaining > 0) {
+      int n = in.read(buffer, 0, Math.min(buffer.length, remaining));
+      if (n < 0) {
+        throw new EOFException("daemon closed the connection mid-frame");
+      }
+      target.write(buffer, 0, n);
+      remaining -= n;
+    }
+    target.flush();
+  }
+}
@@ -0,0 +1,227 @@
+package com.aiddbot.archetype.cli.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aiddbot.archetype.cli.errors.UserFacingErrors;
+import com.aiddbot.archetype.cli.runtime.DefaultExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodeExceptionMapper;
+
+/**
+ * Serves command lines from {@link DaemonClient}s over a Unix domain socket.
+ *
+ * <p>Each connection is served on its own virtual thread, and a client that has not sent its
+ * request within the request timeout is disconnected, so a slow or stuck client never holds up
+ * the others. Commands run concurrently, each on its connection's thread: the handler gets a stdout
+ * and stderr of its own that stream back to the client as they are written, and its return value
+ * is sent last as the exit code. The process-wide {@link System#out} and {@link System#err} are
+ * left alone.
+ *
+ * <p>The socket file is readable and writable by its owner only and is removed on {@link #close()}.
+ */
+public final class DaemonServer implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(DaemonServer.class);
+
+  private static final ExitCodeExceptionMapper MAPPER = new DefaultExitCodeExceptionMapper();
+
+  private final Path socket;
+  private final Duration requestTimeout;
+  private final Handler handler;
+  private volatile ServerSocketChannel server;
+
+  /** Runs one command line for a client. */
+  @FunctionalInterface
+  public interface Handler {
+
+    /**
+     * Run a command line, printing only to the given streams.
+     *
+     * @param argv command name followed by its options
+     * @param out the client's stdout
+     * @param err the client's stderr
+     * @return the exit code
+     */
+    int execute(List<String> argv, PrintStream out, PrintStream err);
+  }
+
+  /**
+   * @param socket path of the socket file
+   * @param requestTimeout how long a client may take to send its request
+   * @param handler runs one command line and returns its exit code; called concurrently
+   */
+  public DaemonServer(Path socket, Duration requestTimeout, Handler handler) {
+    this.socket = socket;
+    this.requestTimeout = requestTimeout;
+    this.handler = handler;
+  }
+
+  /**
+   * Bind the socket and serve requests until {@link #close()} is called.
+   *
+   * @throws IOException when the socket cannot be bound, e.g. because another daemon owns it
+   */
+  public void serve() throws IOException {
+    bind();
+    log.info("daemon listening on {}", socket);
+    ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    ScheduledExecutorService deadlines =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("daemon-deadlines").daemon().factory());
+    try {
+      while (true) {
+        SocketChannel channel;
+        try {
+          channel = server.accept();
+        } catch (ClosedChannelException e) {
+          return;
+        }
+        connections.execute(() -> serve(channel, deadlines));
+      }
+    } finally {
+      // Commands still running finish on their own threads; nothing new is accepted
+      connections.shutdown();
+      deadlines.shutdownNow();
+    }
+  }
+
+  /** Stop accepting requests and remove the socket file. */
+  @Override
+  public void close() {
+    ServerSocketChannel current = server;
+    if (current == null) {
+      return;
+    }
+    try {
+      current.close();
+      Files.deleteIfExists(socket);
+    } catch (IOException e) {
+      log.warn("could not remove daemon socket {}: {}", socket, e.toString());
+    }
+  }
+
+  private void bind() throws IOException {
+    if (Files.exists(socket)) {
+      if (isListening(socket)) {
+        throw new IOException("another daemon is already listening on " + socket);
+      }
+      // left behind by a daemon that did not shut down cleanly
+      Files.delete(socket);
+    }
+    Path parent = socket.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    channel.bind(UnixDomainSocketAddress.of(socket));
+    try {
+      Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+    } catch (UnsupportedOperationException e) {
+      log.debug("socket permissions not supported on this file system");
+    }
+    server = channel;
+  }
+
+  private static boolean isListening(Path socket) {
+    try (SocketChannel probe = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private void serve(SocketChannel channel, ScheduledExecutorService deadlines) {
+    try (channel) {
+      handle(channel, readRequest(channel, deadlines));
+    } catch (EOFException e) {
+      log.debug("daemon client disconnected before sending a request");
+    } catch (IOException e) {
+      log.warn("daemon request failed: {}", e.toString());
+    }
+  }
+
+  // Blocking channel reads cannot time out, so the channel is closed once the deadline passes
+  private List<String> readRequest(SocketChannel channel, ScheduledExecutorService deadlines)
+      throws IOException {
+    AtomicBoolean expired = new AtomicBoolean();
+    ScheduledFuture<?> deadline =
+        deadlines.schedule(
+            () -> {
+              expired.set(true);
+              try {
+                channel.close();
+              } catch (IOException e) {
+                log.debug("could not close daemon client: {}", e.toString());
+              }
+            },
+            requestTimeout.toMillis(),
+            TimeUnit.MILLISECONDS);
+    List<String> argv;
+    try {
+      argv =
+          Frames.readRequest(
+              new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))));
+    } catch (IOException e) {
+      deadline.cancel(false);
+      throw expired.get() ? timedOut() : e;
+    }
+    deadline.cancel(false);
+    if (expired.get()) {
+      throw timedOut(); // the request arrived just as the deadline closed the channel
+    }
+    return argv;
+  }
+
+  private SocketTimeoutException timedOut() {
+    return new SocketTimeoutException("no request within " + requestTimeout.toMillis() + " ms");
+  }
+
+  private void handle(SocketChannel channel, List<String> argv) throws IOException {
+    DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    PrintStream stdout =
+        new PrintStream(Frames.output(out, Frames.STDOUT), true, StandardCharsets.UTF_8);
+    PrintStream stderr =
+        new PrintStream(Frames.output(out, Frames.STDERR), true, StandardCharsets.UTF_8);
+
+    int code;
+    try {
+      code = handler.execute(argv, stdout, stderr);
+    } catch (RuntimeException e) {
+      stderr.println(UserFacingErrors.format(e));
+      code = MAPPER.map(e);
+    } finally {
+      stdout.flush();
+      stderr.flush();
+    }
+    log.debug("daemon ran {} -> {}", argv, code);
+    Frames.writeExit(out, code);
+  }
+}
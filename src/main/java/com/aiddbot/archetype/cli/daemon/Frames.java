@@ -0,0 +1,82 @@
+package com.aiddbot.archetype.cli.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire format between {@link DaemonClient} and {@link DaemonServer}.
+ *
+ * <p>The client sends the argument count followed by each argument in modified UTF-8. The server
+ * answers with a sequence of frames, each starting with a kind byte:
+ *
+ * <ul>
+ *   <li>{@link #STDOUT} or {@link #STDERR}, a length and that many bytes of output;
+ *   <li>{@link #EXIT} and the exit code, which ends the response.
+ * </ul>
+ */
+final class Frames {
+
+  static final byte STDOUT = 1;
+  static final byte STDERR = 2;
+  static final byte EXIT = 3;
+
+  private static final int MAX_ARGS = 1024;
+
+  private Frames() {}
+
+  static void writeRequest(DataOutputStream out, List<String> argv) throws IOException {
+    out.writeInt(argv.size());
+    for (String arg : argv) {
+      out.writeUTF(arg);
+    }
+    out.flush();
+  }
+
+  static List<String> readRequest(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    if (count < 0 || count > MAX_ARGS) {
+      throw new ProtocolException("bad argument count " + count);
+    }
+    List<String> argv = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      argv.add(in.readUTF());
+    }
+    return argv;
+  }
+
+  /** An output stream that sends everything written to it as frames of the given kind. */
+  static OutputStream output(DataOutputStream out, byte kind) {
+    return new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+          return;
+        }
+        synchronized (out) {
+          out.writeByte(kind);
+          out.writeInt(len);
+          out.write(b, off, len);
+          out.flush();
+        }
+      }
+    };
+  }
+
+  static void writeExit(DataOutputStream out, int code) throws IOException {
+    synchronized (out) {
+      out.writeByte(EXIT);
+      out.writeInt(code);
+      out.flush();
+    }
+  }
+}
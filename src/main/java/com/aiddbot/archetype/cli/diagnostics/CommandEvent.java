@@ -0,0 +1,58 @@
+package com.aiddbot.archetype.cli.diagnostics;
+
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event spanning one shell command run. */
+@Name(CommandEvent.NAME)
+@Label("Command")
+@Category({"Archetype CLI", "Command"})
+@Description("Execution of one CLI command")
+@StackTrace(false)
+public final class CommandEvent extends jdk.jfr.Event {
+
+  /** Event type name. */
+  public static final String NAME = "com.aiddbot.archetype.cli.Command";
+
+  @Label("Command")
+  String command;
+
+  @Label("Exit")
+  @Description("ExitCodes name")
+  String exit;
+
+  @Label("Exit Code")
+  int exitCode;
+
+  /**
+   * Begin an event for {@code command}.
+   *
+   * @param command command name, e.g. {@code weather}
+   * @return the started event
+   */
+  public static CommandEvent start(String command) {
+    CommandEvent event = new CommandEvent();
+    event.command = command;
+    event.begin();
+    return event;
+  }
+
+  /**
+   * End and commit the event, if a recording wants it.
+   *
+   * @param exit outcome of the command
+   */
+  public void finish(ExitCodes exit) {
+    end();
+    if (shouldCommit()) {
+      this.exit = exit.name();
+      this.exitCode = exit.code();
+      commit();
+    }
+  }
+}
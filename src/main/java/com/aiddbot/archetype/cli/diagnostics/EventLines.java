@@ -0,0 +1,47 @@
+package com.aiddbot.archetype.cli.diagnostics;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedObject;
+
+/** One-line rendering of recorded JFR events for {@code diag stream}. */
+public final class EventLines {
+
+  // Shown separately or too verbose for a single line
+  private static final Set<String> SKIPPED =
+      Set.of("startTime", "duration", "eventThread", "stackTrace");
+
+  private EventLines() {}
+
+  /**
+   * Render {@code event} as {@code <start> <type> <duration ms> field=value ...}.
+   *
+   * @param event recorded event
+   * @return single-line summary
+   */
+  public static String format(RecordedEvent event) {
+    StringJoiner line = new StringJoiner(" ");
+    line.add(event.getStartTime().toString());
+    line.add(event.getEventType().getName());
+    Duration d = event.getDuration();
+    line.add(String.format("%.1fms", d.toNanos() / 1_000_000.0));
+    for (ValueDescriptor field : event.getFields()) {
+      if (SKIPPED.contains(field.getName())) {
+        continue;
+      }
+      Object value = event.getValue(field.getName());
+      if (value instanceof RecordedClass rc) {
+        value = rc.getName();
+      } else if (value instanceof RecordedObject) {
+        continue;
+      }
+      line.add(field.getName() + "=" + value);
+    }
+    return line.toString();
+  }
+}
@@ -0,0 +1,74 @@
+package com.aiddbot.archetype.cli.diagnostics;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ExchangeFilterFunction} emitting an {@link UpstreamCallEvent} per exchange.
+ *
+ * <p>The event ends when the response body has been consumed, so its duration covers connect,
+ * TLS, waiting and body transfer, and {@code bytes} counts the body actually read. Clients name
+ * the upstream and coordinates via the {@link UpstreamCallEvent#UPSTREAM} and {@link
+ * UpstreamCallEvent#COORDINATES} request attributes. When no recording has the event enabled the
+ * exchange is passed through untouched.
+ */
+public final class FlightRecorderFilter implements ExchangeFilterFunction {
+
+  @Override
+  public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+    return Mono.defer(
+        () -> {
+          UpstreamCallEvent event = new UpstreamCallEvent();
+          if (!event.isEnabled()) {
+            return next.exchange(request);
+          }
+          event.begin();
+          URI url = request.url();
+          event.upstream =
+              request.attribute(UpstreamCallEvent.UPSTREAM).map(String::valueOf).orElse(url.getHost());
+          event.coordinates =
+              request.attribute(UpstreamCallEvent.COORDINATES).map(String::valueOf).orElse("");
+          event.method = request.method().name();
+          event.endpoint = url.getScheme() + "://" + url.getAuthority() + url.getPath();
+          AtomicBoolean committed = new AtomicBoolean();
+          return next.exchange(request)
+              .doOnError(e -> commit(event, committed, "error"))
+              .doOnCancel(() -> commit(event, committed, "cancelled"))
+              .map(
+                  response -> {
+                    event.status = response.statusCode().value();
+                    String completed = response.statusCode().isError() ? "http-error" : "ok";
+                    return response
+                        .mutate()
+                        .body(
+                            body ->
+                                body.doOnNext(buffer -> event.bytes += buffer.readableByteCount())
+                                    .doFinally(
+                                        signal ->
+                                            commit(
+                                                event,
+                                                committed,
+                                                switch (signal) {
+                                                  case ON_COMPLETE -> completed;
+                                                  case CANCEL -> "cancelled";
+                                                  default -> "error";
+                                                })))
+                        .build();
+                  });
+        });
+  }
+
+  private static void commit(UpstreamCallEvent event, AtomicBoolean committed, String outcome) {
+    if (committed.compareAndSet(false, true)) {
+      event.outcome = outcome;
+      event.commit();
+    }
+  }
+}
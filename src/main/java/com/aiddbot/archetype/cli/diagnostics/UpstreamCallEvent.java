@@ -0,0 +1,57 @@
+package com.aiddbot.archetype.cli.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one HTTP exchange with an upstream service, from sending the request until its
+ * body was fully read.
+ *
+ * <p>Every physical request is recorded, so retries and hedged duplicates show up as separate
+ * events. Emitted by {@link FlightRecorderFilter}.
+ */
+@Name(UpstreamCallEvent.NAME)
+@Label("Upstream Call")
+@Category({"Archetype CLI", "Upstream"})
+@Description("HTTP exchange with an upstream service")
+@StackTrace(false)
+public final class UpstreamCallEvent extends jdk.jfr.Event {
+
+  /** Event type name. */
+  public static final String NAME = "com.aiddbot.archetype.cli.UpstreamCall";
+
+  /** Request attribute naming the upstream, e.g. {@code open-meteo}. */
+  public static final String UPSTREAM = NAME + ".upstream";
+
+  /** Request attribute with the coordinates asked for, as {@code lat,lon[;lat,lon...]}. */
+  public static final String COORDINATES = NAME + ".coordinates";
+
+  @Label("Upstream")
+  String upstream;
+
+  @Label("Method")
+  String method;
+
+  @Label("Endpoint")
+  @Description("Scheme, host and path, without query string")
+  String endpoint;
+
+  @Label("Coordinates")
+  String coordinates;
+
+  @Label("Status")
+  @Description("HTTP status code, or 0 when no response arrived")
+  int status;
+
+  @Label("Bytes")
+  @DataAmount
+  long bytes;
+
+  @Label("Outcome")
+  @Description("ok, http-error, error or cancelled")
+  String outcome;
+}
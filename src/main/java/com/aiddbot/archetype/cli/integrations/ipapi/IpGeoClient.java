@@ -1,18 +1,41 @@
 package com.aiddbot.archetype.cli.integrations.ipapi;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.aiddbot.archetype.cli.cache.IpGeoCache;
 import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.config.CliProperties.Endpoints.IpGeoBackend;
+import com.aiddbot.archetype.cli.diagnostics.UpstreamCallEvent;
+import com.aiddbot.archetype.cli.integrations.ipdb.IpRangeDatabase;
+import com.aiddbot.archetype.cli.integrations.ipdb.PublicAddress;
+import com.aiddbot.archetype.cli.logging.Correlation;
+import com.aiddbot.archetype.cli.logging.SampledLogFilter;
+import com.aiddbot.archetype.cli.metrics.UpstreamMetrics;
+import com.aiddbot.archetype.cli.resilience.Hedger;
+import com.aiddbot.archetype.cli.resilience.SingleFlight;
+import com.aiddbot.archetype.cli.resilience.UpstreamPolicy;
 import com.aiddbot.archetype.cli.runtime.CodedException;
 import com.aiddbot.archetype.cli.runtime.ExitCodes;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Client for the IP geolocation service (ip-api.com).
@@ -23,24 +46,67 @@ import reactor.core.Exceptions;
  *
  * <p>All network and upstream errors are translated to a {@link CodedException} using {@link
  * ExitCodes#NETWORK} so the CLI can exit gracefully with consistent codes (F3.4).
+ *
+ * <p>With {@code cli.endpoints.ip-geo-backend=offline} the public IP is resolved against a local
+ * {@link IpRangeDatabase} instead, loaded lazily on first use.
+ *
+ * <p>Successful lookups are persisted in the shared {@link IpGeoCache}, so later invocations on the
+ * same network skip the remote call until the entry expires. The entry is keyed by the backend and
+ * {@code cli.endpoints.public-ip}, so changing either never serves the other's location.
+ *
+ * <p>Remote calls go through an {@link UpstreamPolicy} (retries, circuit breaker). With {@code
+ * cli.network.hedge-enabled=true}, the single-address lookup is also hedged by a {@link Hedger};
+ * batch POSTs are not, to stay within ip-api's batch rate limit.
  */
 @Component
+@Lazy
 public class IpGeoClient {
 
   private static final Logger log = LoggerFactory.getLogger(IpGeoClient.class);
 
+  private static final String UPSTREAM = "ip-geo";
+
+  /** Maximum number of addresses ip-api accepts in one batch request. */
+  public static final int MAX_BATCH_SIZE = 100;
+
   private final WebClient webClient;
   private final URI baseUri;
+  private final URI batchUri;
+  private final int maxInFlight;
+  private final IpGeoCache cache;
+  private final CliProperties.Endpoints endpoints;
+  private final UpstreamPolicy upstream;
+  private final SingleFlight<IpGeoBackend, IpGeoResponse> flights = new SingleFlight<>();
+  private volatile IpRangeDatabase offlineDb;
 
   /**
    * Create the client with the shared WebClient and configuration properties.
    *
    * @param webClient shared, timeout-configured HTTP client (see F2.1)
    * @param props CLI properties holding the ip-api base URL (see F2.2)
+   * @param cache cache of the last successful lookup
    */
-  public IpGeoClient(WebClient webClient, CliProperties props) {
+  public IpGeoClient(WebClient webClient, CliProperties props, IpGeoCache cache) {
     this.webClient = webClient;
     this.baseUri = props.getEndpoints().getIpGeoBaseUrl();
+    this.batchUri = props.getEndpoints().getIpGeoBatchUrl();
+    this.maxInFlight = props.getBatch().getMaxInFlight();
+    this.cache = cache;
+    this.endpoints = props.getEndpoints();
+    this.upstream = UpstreamPolicy.of(UPSTREAM, props.getNetwork());
+    FunctionCounter.builder("cli.singleflight.joined", flights, SingleFlight::joined)
+        .tag("upstream", UPSTREAM)
+        .register(Metrics.globalRegistry);
+  }
+
+  /** Hedging policy and counters for single ip-api lookups. */
+  public Hedger hedger() {
+    return upstream.hedger();
+  }
+
+  /** Coalescing of concurrent {@link #resolveAsync()} calls. */
+  public SingleFlight<IpGeoBackend, IpGeoResponse> flights() {
+    return flights;
   }
 
   /**
@@ -50,33 +116,211 @@ public class IpGeoClient {
    * @throws CodedException when HTTP/network errors occur or the response is invalid
    */
   public IpGeoResponse resolve() {
+    return resolveAsync().contextWrite(Correlation.context()).block();
+  }
+
+  /**
+   * Non-blocking variant of {@link #resolve()}.
+   *
+   * <p>Errors are signalled as {@link CodedException}.
+   *
+   * @return a lazy {@link Mono} emitting the validated response
+   */
+  public Mono<IpGeoResponse> resolveAsync() {
+    return Mono.defer(
+        () -> {
+          Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+          return resolveCachedOrRemote()
+              .doOnTerminate(() -> sample.stop(Metrics.timer("cli.ip.resolve")));
+        });
+  }
+
+  private Mono<IpGeoResponse> resolveCachedOrRemote() {
+    return Mono.defer(
+        () -> {
+          String source = cacheSource();
+          Optional<IpGeoResponse> cached = cache.get(source);
+          UpstreamMetrics.cacheLookup(UPSTREAM, cached.isPresent());
+          if (cached.isPresent()) {
+            log.info("ip-geo served from cache");
+            return Mono.just(cached.get());
+          }
+          // Concurrent callers share one lookup of this host's location
+          return flights.execute(
+              endpoints.getIpGeoBackend(),
+              () -> {
+                Mono<IpGeoResponse> lookup =
+                    endpoints.getIpGeoBackend() == IpGeoBackend.OFFLINE
+                        ? Mono.fromCallable(this::resolveOffline)
+                        : resolveRemote();
+                return lookup.doOnNext(resp -> cache.put(source, resp));
+              });
+        });
+  }
+
+  // Backend plus the configured public IP, if any: each gives its own answer for this host
+  private String cacheSource() {
+    String ip = endpoints.getPublicIp();
+    String backend = endpoints.getIpGeoBackend().name().toLowerCase(Locale.ROOT);
+    return ip == null || ip.isBlank() ? backend : backend + ":" + ip;
+  }
+
+  private Mono<IpGeoResponse> resolveRemote() {
+    return upstream
+        .execute(
+            () ->
+                webClient
+                    .get()
+                    .uri(baseUri)
+                    .attribute(UpstreamCallEvent.UPSTREAM, UPSTREAM)
+                    .exchangeToMono(
+                        resp -> UpstreamMetrics.decode(UPSTREAM, resp, IpGeoResponse.class)))
+        .switchIfEmpty(
+            Mono.error(
+                () -> new CodedException(ExitCodes.UNKNOWN, "ip-geo returned empty response")))
+        .map(IpGeoClient::validate)
+        .transform(
+            Correlation.onErrorMap(
+                e -> !(e instanceof CodedException), IpGeoClient::toCodedException));
+  }
+
+  private static IpGeoResponse validate(IpGeoResponse resp) {
+    if (!"success".equalsIgnoreCase(resp.getStatus())) {
+      String msg = resp.getMessage() != null ? resp.getMessage() : "ip-geo returned failure";
+      throw new CodedException(ExitCodes.NETWORK, "ip-geo failed: " + msg);
+    }
+
+    if (resp.getLat() == null || resp.getLon() == null) {
+      throw new CodedException(ExitCodes.UNKNOWN, "ip-geo returned invalid coordinates");
+    }
+
+    return resp;
+  }
+
+  private static CodedException toCodedException(Throwable t) {
+    if (t instanceof WebClientResponseException wcre) {
+      log.error(SampledLogFilter.PER_ITEM, "ip-geo HTTP error: {}", wcre.getMessage());
+      return new CodedException(ExitCodes.NETWORK, "ip-geo HTTP error: " + wcre.getMessage(), wcre);
+    }
+    // treat reactor / timeout / other network issues as network failures
+    log.error(SampledLogFilter.PER_ITEM, "ip-geo network/runtime error: {}", t.toString());
+    Throwable unwrapped = Exceptions.unwrap(t);
+    return new CodedException(
+        ExitCodes.NETWORK, "ip-geo network error: " + unwrapped.getMessage(), unwrapped);
+  }
+
+  /**
+   * Geolocate many IP addresses.
+   *
+   * <p>With the remote backend, addresses are posted to ip-api's batch endpoint in requests of up
+   * to {@link #MAX_BATCH_SIZE}, with up to {@code cli.batch.max-in-flight} requests open at once.
+   * Rows are emitted as each request completes, so order across requests is not preserved; use
+   * {@link IpGeoResponse#getQuery()} to correlate. Per-address failures (e.g. private ranges) are
+   * emitted as rows with status {@code fail}.
+   *
+   * @param ips IPv4 or IPv6 addresses
+   * @return a lazy {@link Flux} with one response per address
+   */
+  public Flux<IpGeoResponse> lookupManyAsync(List<String> ips) {
+    if (endpoints.getIpGeoBackend() == IpGeoBackend.OFFLINE) {
+      return Flux.defer(() -> Flux.fromIterable(ips).map(this::lookupOffline));
+    }
+    return Flux.fromIterable(ips).buffer(MAX_BATCH_SIZE).flatMap(this::postBatch, maxInFlight);
+  }
+
+  private Flux<IpGeoResponse> postBatch(List<String> ips) {
+    return upstream
+        .guard(
+            () ->
+                webClient
+                    .post()
+                    .uri(batchUri)
+                    .attribute(UpstreamCallEvent.UPSTREAM, UPSTREAM)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(ips)
+                    .exchangeToMono(
+                        resp -> UpstreamMetrics.decode(UPSTREAM, resp, IpGeoResponse[].class)))
+        .switchIfEmpty(
+            Mono.error(
+                () -> new CodedException(ExitCodes.UNKNOWN, "ip-geo returned empty response")))
+        .flatMapMany(
+            rows -> {
+              if (rows.length != ips.size()) {
+                return Flux.error(
+                    new CodedException(
+                        ExitCodes.UNKNOWN,
+                        String.format(
+                            "ip-geo returned %d rows for %d addresses", rows.length, ips.size())));
+              }
+              return Flux.fromArray(rows);
+            })
+        .transform(
+            Correlation.onErrorMapMany(
+                e -> !(e instanceof CodedException), IpGeoClient::toCodedException));
+  }
+
+  private IpGeoResponse lookupOffline(String ip) {
     try {
-      IpGeoResponse resp =
-          webClient.get().uri(baseUri).retrieve().bodyToMono(IpGeoResponse.class).block();
+      return offlineDatabase().lookup(ip);
+    } catch (IllegalArgumentException iae) {
+      IpGeoResponse fail = new IpGeoResponse();
+      fail.setQuery(ip);
+      fail.setStatus("fail");
+      fail.setMessage(iae.getMessage());
+      return fail;
+    }
+  }
 
-      if (resp == null) {
-        throw new CodedException(ExitCodes.UNKNOWN, "ip-geo returned empty response");
-      }
+  private IpGeoResponse resolveOffline() {
+    String ip = endpoints.getPublicIp();
+    if (ip == null || ip.isBlank()) {
+      ip =
+          PublicAddress.detect()
+              .orElseThrow(
+                  () ->
+                      new CodedException(
+                          ExitCodes.VALIDATION,
+                          "offline ip-geo needs cli.endpoints.public-ip: no public IPv4 address on"
+                              + " local interfaces"));
+    }
 
-      if (!"success".equalsIgnoreCase(resp.getStatus())) {
-        String msg = resp.getMessage() != null ? resp.getMessage() : "ip-geo returned failure";
-        throw new CodedException(ExitCodes.NETWORK, "ip-geo failed: " + msg);
-      }
+    IpGeoResponse resp;
+    try {
+      resp = offlineDatabase().lookup(ip);
+    } catch (IllegalArgumentException iae) {
+      throw new CodedException(ExitCodes.VALIDATION, "ip-geo offline: " + iae.getMessage(), iae);
+    }
+    if (!"success".equalsIgnoreCase(resp.getStatus())) {
+      throw new CodedException(ExitCodes.UNKNOWN, "ip-geo offline: " + resp.getMessage());
+    }
+    return resp;
+  }
 
-      if (resp.getLat() == null || resp.getLon() == null) {
-        throw new CodedException(ExitCodes.UNKNOWN, "ip-geo returned invalid coordinates");
+  // Loaded on first use so the remote backend never pays for it
+  IpRangeDatabase offlineDatabase() {
+    IpRangeDatabase db = offlineDb;
+    if (db == null) {
+      synchronized (this) {
+        db = offlineDb;
+        if (db == null) {
+          Path file = endpoints.getIpGeoDatabase();
+          if (file == null) {
+            throw new CodedException(
+                ExitCodes.VALIDATION, "offline ip-geo needs cli.endpoints.ip-geo-database");
+          }
+          try {
+            db = IpRangeDatabase.load(file);
+          } catch (IOException ioe) {
+            throw new CodedException(
+                ExitCodes.IO, "cannot read ip-geo database " + file + ": " + ioe.getMessage(), ioe);
+          } catch (IllegalArgumentException iae) {
+            throw new CodedException(ExitCodes.VALIDATION, iae.getMessage(), iae);
+          }
+          log.info("ip-geo offline database loaded: {} ranges from {}", db.size(), file);
+          offlineDb = db;
+        }
       }
-
-      return resp;
-    } catch (WebClientResponseException wcre) {
-      log.error("ip-geo HTTP error: {}", wcre.getMessage());
-      throw new CodedException(ExitCodes.NETWORK, "ip-geo HTTP error: " + wcre.getMessage(), wcre);
-    } catch (RuntimeException re) {
-      // treat reactor / timeout / other network issues as network failures
-      log.error("ip-geo network/runtime error: {}", re.toString());
-      Throwable unwrapped = Exceptions.unwrap(re);
-      throw new CodedException(
-          ExitCodes.NETWORK, "ip-geo network error: " + unwrapped.getMessage(), unwrapped);
     }
+    return db;
   }
 }
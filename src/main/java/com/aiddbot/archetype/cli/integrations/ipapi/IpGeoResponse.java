@@ -26,6 +26,10 @@ public class IpGeoResponse {
   /** Longitude in decimal degrees. */
   private Double lon;
 
+  @JsonProperty("query")
+  /** IP address the response refers to. */
+  private String query;
+
   @JsonProperty("city")
   /** Optional city name returned by the IP geolocation service. */
   private String city;
@@ -66,6 +70,14 @@ public class IpGeoResponse {
     this.lon = lon;
   }
 
+  public String getQuery() {
+    return query;
+  }
+
+  public void setQuery(String query) {
+    this.query = query;
+  }
+
   public String getCity() {
     return city;
   }
@@ -0,0 +1,264 @@
+package com.aiddbot.archetype.cli.integrations.ipdb;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoResponse;
+
+/**
+ * Offline IPv4-to-location database held as sorted primitive arrays.
+ *
+ * <p>The source is a CSV file with one range per line, in either form:
+ *
+ * <pre>
+ *   start_ip,end_ip,lat,lon,city,country     e.g. 81.0.0.0,81.0.255.255,40.41,-3.70,Madrid,Spain
+ *   cidr,lat,lon,city,country                e.g. 81.0.0.0/16,40.41,-3.70,Madrid,Spain
+ * </pre>
+ *
+ * <p>Blank lines and lines starting with {@code #} are ignored; city and country may be empty.
+ * Ranges must not overlap. Lookups are a binary search over the range starts and allocate nothing
+ * until a match is turned into an {@link IpGeoResponse}.
+ */
+public final class IpRangeDatabase {
+
+  /** Marker returned by {@link #indexOf(int)} when no range contains the address. */
+  public static final int NOT_FOUND = -1;
+
+  // Range bounds are stored with the sign bit flipped so signed int order matches address order
+  private final int[] starts;
+  private final int[] ends;
+  private final double[] lats;
+  private final double[] lons;
+  private final String[] cities;
+  private final String[] countries;
+
+  private IpRangeDatabase(
+      int[] starts,
+      int[] ends,
+      double[] lats,
+      double[] lons,
+      String[] cities,
+      String[] countries) {
+    this.starts = starts;
+    this.ends = ends;
+    this.lats = lats;
+    this.lons = lons;
+    this.cities = cities;
+    this.countries = countries;
+  }
+
+  /**
+   * Load and index a database file.
+   *
+   * @param file CSV range file
+   * @return the indexed database
+   * @throws IOException when the file cannot be read
+   * @throws IllegalArgumentException when a line is malformed or ranges overlap
+   */
+  public static IpRangeDatabase load(Path file) throws IOException {
+    Builder b = new Builder();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNo = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNo++;
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+          continue;
+        }
+        try {
+          b.addLine(trimmed);
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException(file + ":" + lineNo + ": " + e.getMessage(), e);
+        }
+      }
+    }
+    return b.build();
+  }
+
+  /**
+   * @return number of ranges in the database
+   */
+  public int size() {
+    return starts.length;
+  }
+
+  /**
+   * Find the range containing an address.
+   *
+   * @param address IPv4 address as returned by {@link #parseIpv4(String)}
+   * @return range index, or {@link #NOT_FOUND}
+   */
+  public int indexOf(int address) {
+    int key = address ^ Integer.MIN_VALUE;
+    int lo = 0;
+    int hi = starts.length - 1;
+    int candidate = NOT_FOUND;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (starts[mid] <= key) {
+        candidate = mid;
+        lo = mid + 1;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    return candidate != NOT_FOUND && key <= ends[candidate] ? candidate : NOT_FOUND;
+  }
+
+  /**
+   * Resolve a textual IPv4 address.
+   *
+   * @param ip dotted-quad address
+   * @return a {@code success} response with coordinates and place, or a {@code fail} response with
+   *     message {@code "no range for <ip>"}
+   * @throws IllegalArgumentException when {@code ip} is not a valid IPv4 address
+   */
+  public IpGeoResponse lookup(String ip) {
+    int idx = indexOf(parseIpv4(ip));
+    IpGeoResponse resp = new IpGeoResponse();
+    resp.setQuery(ip);
+    if (idx == NOT_FOUND) {
+      resp.setStatus("fail");
+      resp.setMessage("no range for " + ip);
+      return resp;
+    }
+    resp.setStatus("success");
+    resp.setLat(lats[idx]);
+    resp.setLon(lons[idx]);
+    resp.setCity(cities[idx]);
+    resp.setCountry(countries[idx]);
+    return resp;
+  }
+
+  /**
+   * Parse a dotted-quad IPv4 address without DNS lookups.
+   *
+   * @param ip address such as {@code 192.0.2.10}
+   * @return the address as a 32-bit value (unsigned semantics)
+   * @throws IllegalArgumentException when the text is not a valid IPv4 address
+   */
+  public static int parseIpv4(String ip) {
+    String[] parts = ip.trim().split("\\.", -1);
+    if (parts.length != 4) {
+      throw new IllegalArgumentException("invalid IPv4 address: " + ip);
+    }
+    int value = 0;
+    for (String part : parts) {
+      int octet;
+      try {
+        octet = Integer.parseInt(part);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("invalid IPv4 address: " + ip, e);
+      }
+      if (part.isEmpty() || octet < 0 || octet > 255) {
+        throw new IllegalArgumentException("invalid IPv4 address: " + ip);
+      }
+      value = (value << 8) | octet;
+    }
+    return value;
+  }
+
+  // Accumulates rows in growable primitive arrays, then sorts them by range start
+  private static final class Builder {
+    private int size;
+    private int[] starts = new int[1024];
+    private int[] ends = new int[1024];
+    private double[] lats = new double[1024];
+    private double[] lons = new double[1024];
+    private String[] cities = new String[1024];
+    private String[] countries = new String[1024];
+    private final Map<String, String> names = new HashMap<>();
+
+    void addLine(String line) {
+      String[] f = line.split(",", -1);
+      int start;
+      int end;
+      int next;
+      if (f[0].contains("/")) {
+        String[] cidr = f[0].split("/", -1);
+        int prefix = Integer.parseInt(cidr[1].trim());
+        if (prefix < 0 || prefix > 32) {
+          throw new IllegalArgumentException("invalid prefix length: " + f[0]);
+        }
+        int mask = prefix == 0 ? 0 : -1 << (32 - prefix);
+        start = parseIpv4(cidr[0]) & mask;
+        end = start | ~mask;
+        next = 1;
+      } else {
+        start = parseIpv4(f[0]);
+        end = parseIpv4(f[1]);
+        next = 2;
+      }
+      if (f.length < next + 2) {
+        throw new IllegalArgumentException("expected coordinates after the address range");
+      }
+      if (Integer.compareUnsigned(start, end) > 0) {
+        throw new IllegalArgumentException("range start after end");
+      }
+      ensureCapacity();
+      starts[size] = start ^ Integer.MIN_VALUE;
+      ends[size] = end ^ Integer.MIN_VALUE;
+      lats[size] = Double.parseDouble(f[next].trim());
+      lons[size] = Double.parseDouble(f[next + 1].trim());
+      cities[size] = name(f, next + 2);
+      countries[size] = name(f, next + 3);
+      size++;
+    }
+
+    IpRangeDatabase build() {
+      Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Integer.compare(starts[a], starts[b]));
+
+      int[] s = new int[size];
+      int[] e = new int[size];
+      double[] la = new double[size];
+      double[] lo = new double[size];
+      String[] ci = new String[size];
+      String[] co = new String[size];
+      for (int i = 0; i < size; i++) {
+        int j = order[i];
+        s[i] = starts[j];
+        e[i] = ends[j];
+        la[i] = lats[j];
+        lo[i] = lons[j];
+        ci[i] = cities[j];
+        co[i] = countries[j];
+        if (i > 0 && s[i] <= e[i - 1]) {
+          throw new IllegalArgumentException("overlapping ranges in ip database");
+        }
+      }
+      return new IpRangeDatabase(s, e, la, lo, ci, co);
+    }
+
+    private String name(String[] f, int idx) {
+      if (idx >= f.length || f[idx].isBlank()) {
+        return null;
+      }
+      String v = f[idx].trim();
+      return names.computeIfAbsent(v, k -> k);
+    }
+
+    private void ensureCapacity() {
+      if (size < starts.length) {
+        return;
+      }
+      int n = starts.length * 2;
+      starts = Arrays.copyOf(starts, n);
+      ends = Arrays.copyOf(ends, n);
+      lats = Arrays.copyOf(lats, n);
+      lons = Arrays.copyOf(lons, n);
+      cities = Arrays.copyOf(cities, n);
+      countries = Arrays.copyOf(countries, n);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.aiddbot.archetype.cli.integrations.ipdb;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Finds a public IPv4 address bound to a local interface, without any network call.
+ *
+ * <p>Works on servers with a directly attached public address. Hosts behind NAT have none, and
+ * must configure {@code cli.endpoints.public-ip} for the offline backend.
+ */
+public final class PublicAddress {
+
+  private PublicAddress() {}
+
+  /**
+   * @return the first public IPv4 address of an active interface, if any
+   */
+  public static Optional<String> detect() {
+    try {
+      for (NetworkInterface nif : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+        if (!nif.isUp() || nif.isLoopback()) {
+          continue;
+        }
+        for (InetAddress addr : Collections.list(nif.getInetAddresses())) {
+          if (addr instanceof Inet4Address && isPublic(addr)) {
+            return Optional.of(addr.getHostAddress());
+          }
+        }
+      }
+    } catch (SocketException | RuntimeException e) {
+      return Optional.empty();
+    }
+    return Optional.empty();
+  }
+
+  static boolean isPublic(InetAddress addr) {
+    if (addr.isLoopbackAddress()
+        || addr.isLinkLocalAddress()
+        || addr.isSiteLocalAddress()
+        || addr.isAnyLocalAddress()
+        || addr.isMulticastAddress()) {
+      return false;
+    }
+    byte[] b = addr.getAddress();
+    // 100.64.0.0/10 carrier-grade NAT is not routable either
+    return !((b[0] & 0xFF) == 100 && (b[1] & 0xC0) == 64);
+  }
+}
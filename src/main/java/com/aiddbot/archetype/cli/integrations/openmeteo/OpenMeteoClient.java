@@ -1,18 +1,37 @@
 package com.aiddbot.archetype.cli.integrations.openmeteo;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.aiddbot.archetype.cli.cache.ObservationCache;
 import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.diagnostics.UpstreamCallEvent;
+import com.aiddbot.archetype.cli.location.Coordinates;
+import com.aiddbot.archetype.cli.logging.Correlation;
+import com.aiddbot.archetype.cli.logging.SampledLogFilter;
+import com.aiddbot.archetype.cli.metrics.UpstreamMetrics;
+import com.aiddbot.archetype.cli.resilience.Hedger;
+import com.aiddbot.archetype.cli.resilience.SingleFlight;
+import com.aiddbot.archetype.cli.resilience.UpstreamPolicy;
 import com.aiddbot.archetype.cli.runtime.CodedException;
 import com.aiddbot.archetype.cli.runtime.ExitCodes;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
 import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Client for Open‑Meteo current weather endpoint.
@@ -21,24 +40,59 @@ import reactor.core.Exceptions;
  * shared {@link WebClient} and the base URL from {@link CliProperties} (F2.2). Errors are
  * normalized to {@link CodedException} with {@link ExitCodes#NETWORK} for consistent CLI behavior
  * (F3.4).
+ *
+ * <p>Bulk lookups use Open‑Meteo's multi-location form (comma-separated {@code latitude} and
+ * {@code longitude} lists), packing up to {@code cli.batch.locations-per-request} points into a
+ * single HTTP request.
+ *
+ * <p>Every lookup consults the shared {@link ObservationCache} first; only misses go upstream and
+ * their results are written back. Concurrent single-location misses for the same grid cell
+ * ({@code cli.cache.grid-degrees}) share one in-flight request through a {@link SingleFlight}.
+ *
+ * <p>Upstream GETs go through an {@link UpstreamPolicy}: jittered retries for transient failures, a
+ * circuit breaker that fails fast while Open‑Meteo is degraded and, with {@code
+ * cli.network.hedge-enabled=true}, a {@link Hedger}.
  */
 @Component
+@Lazy
 public class OpenMeteoClient {
 
   private static final Logger log = LoggerFactory.getLogger(OpenMeteoClient.class);
 
+  private static final String UPSTREAM = "open-meteo";
+
   private final WebClient webClient;
   private final URI baseUri;
+  private final int locationsPerRequest;
+  private final int maxInFlight;
+  private final ObservationCache cache;
+  private final UpstreamPolicy upstream;
+  private final double gridDegrees;
+  private final SingleFlight<Cell, WeatherObservation> flights = new SingleFlight<>();
 
   /**
    * Constructs a client using the shared WebClient and configuration.
    *
    * @param webClient shared WebClient with timeouts (F2.1)
    * @param props CLI properties containing Open‑Meteo base URL (F2.2)
+   * @param cache observation cache consulted before each upstream call
    */
-  public OpenMeteoClient(WebClient webClient, CliProperties props) {
+  public OpenMeteoClient(WebClient webClient, CliProperties props, ObservationCache cache) {
     this.webClient = webClient;
+    this.cache = cache;
     this.baseUri = props.getEndpoints().getOpenMeteoBaseUrl();
+    this.locationsPerRequest = props.getBatch().getLocationsPerRequest();
+    this.maxInFlight = props.getBatch().getMaxInFlight();
+    this.upstream = UpstreamPolicy.of(UPSTREAM, props.getNetwork());
+    this.gridDegrees = props.getCache().getGridDegrees();
+    FunctionCounter.builder("cli.singleflight.joined", flights, SingleFlight::joined)
+        .tag("upstream", UPSTREAM)
+        .register(Metrics.globalRegistry);
+  }
+
+  /** Hedging policy and counters for Open‑Meteo calls. */
+  public Hedger hedger() {
+    return upstream.hedger();
   }
 
   /**
@@ -50,38 +104,271 @@ public class OpenMeteoClient {
    * @throws CodedException when HTTP/network errors occur or the payload is incomplete
    */
   public WeatherObservation fetchCurrent(double lat, double lon) {
-    try {
-      // Build URI like: {base}?latitude={lat}&longitude={lon}&current_weather=true
-      String uri =
-          String.format(
-              "%s?latitude=%s&longitude=%s&current_weather=true", baseUri.toString(), lat, lon);
-
-      var wrapper =
-          webClient.get().uri(uri).retrieve().bodyToMono(OpenMeteoResponseWrapper.class).block();
-
-      if (wrapper == null || wrapper.current_weather == null) {
-        throw new CodedException(ExitCodes.UNKNOWN, "open-meteo returned empty current_weather");
-      }
-
-      OpenMeteoCurrent cur = wrapper.current_weather;
-      if (cur.getTemperature() == null
-          || cur.getWindspeed() == null
-          || cur.getWeathercode() == null) {
-        throw new CodedException(
-            ExitCodes.UNKNOWN, "open-meteo returned incomplete current_weather");
-      }
-
-      return new WeatherObservation(cur.getTemperature(), cur.getWindspeed(), cur.getWeathercode());
-    } catch (WebClientResponseException wcre) {
-      log.error("open-meteo HTTP error: {}", wcre.getMessage());
-      throw new CodedException(
+    return fetchCurrentAsync(lat, lon).contextWrite(Correlation.context()).block();
+  }
+
+  /**
+   * Non-blocking variant of {@link #fetchCurrent(double, double)}.
+   *
+   * <p>Used by batch commands to keep many requests in flight over the shared {@link WebClient}
+   * without parking a thread per call. Errors are signalled as {@link CodedException}.
+   *
+   * <p>Like a cache hit, a call that joins one already in flight for the same {@link #cellOf grid
+   * cell} gets the observation fetched for the first caller's exact coordinates.
+   *
+   * @param lat latitude in decimal degrees
+   * @param lon longitude in decimal degrees
+   * @return a lazy {@link Mono} emitting the observation
+   */
+  public Mono<WeatherObservation> fetchCurrentAsync(double lat, double lon) {
+    return Mono.defer(
+        () ->
+            lookupCache(lat, lon)
+                .map(Mono::just)
+                .orElseGet(
+                    () ->
+                        flights.execute(
+                            cellOf(lat, lon),
+                            () ->
+                                requestOne(lat, lon).doOnNext(obs -> cache.put(lat, lon, obs)))));
+  }
+
+  /** Coalescing of identical in-flight single-location lookups. */
+  public SingleFlight<Cell, WeatherObservation> flights() {
+    return flights;
+  }
+
+  /**
+   * Grid cell the coordinates fall in; points in one cell share a cache slot and an in-flight
+   * lookup.
+   *
+   * @param lat latitude in decimal degrees
+   * @param lon longitude in decimal degrees
+   * @return the cell, quantized by {@code cli.cache.grid-degrees}
+   */
+  public Cell cellOf(double lat, double lon) {
+    return new Cell(Math.round(lat / gridDegrees), Math.round(lon / gridDegrees));
+  }
+
+  /** Grid cell identifying coordinates that share one upstream lookup. */
+  public record Cell(long lat, long lon) {}
+
+  private Optional<WeatherObservation> lookupCache(double lat, double lon) {
+    Optional<WeatherObservation> hit = cache.get(lat, lon);
+    UpstreamMetrics.cacheLookup("observations", hit.isPresent());
+    return hit;
+  }
+
+  // One HTTP request for a single location, bypassing the cache
+  private Mono<WeatherObservation> requestOne(double lat, double lon) {
+    // Build URI like: {base}?latitude={lat}&longitude={lon}&current_weather=true
+    String uri =
+        String.format(
+            "%s?latitude=%s&longitude=%s&current_weather=true", baseUri.toString(), lat, lon);
+
+    return upstream
+        .execute(
+            () ->
+                webClient
+                    .get()
+                    .uri(uri)
+                    .attribute(UpstreamCallEvent.UPSTREAM, UPSTREAM)
+                    .attribute(UpstreamCallEvent.COORDINATES, lat + "," + lon)
+                    .exchangeToMono(
+                        resp ->
+                            UpstreamMetrics.decode(UPSTREAM, resp, OpenMeteoResponseWrapper.class)))
+        .switchIfEmpty(
+            Mono.error(
+                () ->
+                    new CodedException(
+                        ExitCodes.UNKNOWN, "open-meteo returned empty current_weather")))
+        .map(OpenMeteoClient::toObservation)
+        .transform(
+            Correlation.onErrorMap(
+                e -> !(e instanceof CodedException), OpenMeteoClient::toCodedException));
+  }
+
+  /**
+   * Fetch current weather for many coordinates using multi-location requests.
+   *
+   * @param points coordinates to look up
+   * @return observations in the same order as {@code points}
+   * @throws CodedException when any underlying request fails
+   */
+  public List<WeatherObservation> fetchCurrentMany(List<Coordinates> points) {
+    return fetchCurrentManyAsync(points).collectList().contextWrite(Correlation.context()).block();
+  }
+
+  /**
+   * Non-blocking variant of {@link #fetchCurrentMany(List)}.
+   *
+   * <p>Points are split into requests of at most {@code cli.batch.locations-per-request}
+   * coordinates, which run concurrently up to {@code cli.batch.max-in-flight}. Results are emitted
+   * in input order as soon as each leading request completes.
+   *
+   * @param points coordinates to look up
+   * @return a lazy {@link Flux} emitting one observation per input point, in input order
+   */
+  public Flux<WeatherObservation> fetchCurrentManyAsync(List<Coordinates> points) {
+    if (points.isEmpty()) {
+      return Flux.empty();
+    }
+    return Flux.fromIterable(partition(points, locationsPerRequest))
+        .flatMapSequential(this::fetchChunk, maxInFlight);
+  }
+
+  /**
+   * Fetch fresh observations for many coordinates, skipping cache reads.
+   *
+   * <p>Used by watch mode, where a cached value would hide changes until it expires. Requests are
+   * packed and run like {@link #fetchCurrentManyAsync(List)}, and results are still written back
+   * to the cache.
+   *
+   * @param points coordinates to look up
+   * @return a lazy {@link Flux} emitting one observation per input point, in input order
+   */
+  public Flux<WeatherObservation> refreshManyAsync(List<Coordinates> points) {
+    if (points.isEmpty()) {
+      return Flux.empty();
+    }
+    return Flux.fromIterable(partition(points, locationsPerRequest))
+        .flatMapSequential(
+            chunk ->
+                requestMany(chunk)
+                    .index()
+                    .doOnNext(
+                        t -> {
+                          Coordinates c = chunk.get(t.getT1().intValue());
+                          cache.put(c.lat(), c.lon(), t.getT2());
+                        })
+                    .map(t -> t.getT2()),
+            maxInFlight);
+  }
+
+  // Serve cached points directly and fetch the rest with at most one HTTP request
+  private Flux<WeatherObservation> fetchChunk(List<Coordinates> chunk) {
+    return Flux.defer(
+        () -> {
+          WeatherObservation[] results = new WeatherObservation[chunk.size()];
+          List<Coordinates> misses = new ArrayList<>();
+          for (int i = 0; i < chunk.size(); i++) {
+            Coordinates c = chunk.get(i);
+            results[i] = lookupCache(c.lat(), c.lon()).orElse(null);
+            if (results[i] == null) {
+              misses.add(c);
+            }
+          }
+          if (misses.isEmpty()) {
+            return Flux.fromArray(results);
+          }
+          return requestMany(misses)
+              .collectList()
+              .flatMapIterable(
+                  fetched -> {
+                    int next = 0;
+                    for (int i = 0; i < results.length; i++) {
+                      if (results[i] == null) {
+                        Coordinates c = chunk.get(i);
+                        results[i] = fetched.get(next++);
+                        cache.put(c.lat(), c.lon(), results[i]);
+                      }
+                    }
+                    return List.of(results);
+                  });
+        });
+  }
+
+  // One HTTP request for up to locationsPerRequest points, bypassing the cache
+  private Flux<WeatherObservation> requestMany(List<Coordinates> chunk) {
+    if (chunk.size() == 1) {
+      // A single location is answered with an object rather than an array
+      Coordinates c = chunk.get(0);
+      return requestOne(c.lat(), c.lon()).flux();
+    }
+
+    String uri =
+        String.format(
+            "%s?latitude=%s&longitude=%s&current_weather=true",
+            baseUri.toString(), join(chunk, Coordinates::lat), join(chunk, Coordinates::lon));
+
+    return upstream
+        .execute(
+            () ->
+                webClient
+                    .get()
+                    .uri(uri)
+                    .attribute(UpstreamCallEvent.UPSTREAM, UPSTREAM)
+                    .attribute(UpstreamCallEvent.COORDINATES, describe(chunk))
+                    .exchangeToMono(
+                        resp ->
+                            UpstreamMetrics.decode(
+                                UPSTREAM, resp, OpenMeteoResponseWrapper[].class)))
+        .switchIfEmpty(
+            Mono.error(
+                () -> new CodedException(ExitCodes.UNKNOWN, "open-meteo returned empty response")))
+        .flatMapMany(
+            wrappers -> {
+              if (wrappers.length != chunk.size()) {
+                return Flux.error(
+                    new CodedException(
+                        ExitCodes.UNKNOWN,
+                        String.format(
+                            "open-meteo returned %d locations for %d requested",
+                            wrappers.length, chunk.size())));
+              }
+              return Flux.fromArray(wrappers);
+            })
+        .map(OpenMeteoClient::toObservation)
+        .transform(
+            Correlation.onErrorMapMany(
+                e -> !(e instanceof CodedException), OpenMeteoClient::toCodedException));
+  }
+
+  private static String join(List<Coordinates> chunk, ToDoubleFunction<Coordinates> axis) {
+    return chunk.stream()
+        .map(c -> Double.toString(axis.applyAsDouble(c)))
+        .collect(Collectors.joining(","));
+  }
+
+  // "lat,lon;lat,lon;..." for UpstreamCallEvent
+  private static String describe(List<Coordinates> chunk) {
+    return chunk.stream().map(c -> c.lat() + "," + c.lon()).collect(Collectors.joining(";"));
+  }
+
+  private static <T> List<List<T>> partition(List<T> items, int size) {
+    List<List<T>> chunks = new ArrayList<>((items.size() + size - 1) / size);
+    for (int i = 0; i < items.size(); i += size) {
+      chunks.add(items.subList(i, Math.min(i + size, items.size())));
+    }
+    return chunks;
+  }
+
+  private static WeatherObservation toObservation(OpenMeteoResponseWrapper wrapper) {
+    if (wrapper.current_weather == null) {
+      throw new CodedException(ExitCodes.UNKNOWN, "open-meteo returned empty current_weather");
+    }
+
+    OpenMeteoCurrent cur = wrapper.current_weather;
+    if (cur.getTemperature() == null
+        || cur.getWindspeed() == null
+        || cur.getWeathercode() == null) {
+      throw new CodedException(ExitCodes.UNKNOWN, "open-meteo returned incomplete current_weather");
+    }
+
+    return new WeatherObservation(cur.getTemperature(), cur.getWindspeed(), cur.getWeathercode());
+  }
+
+  private static CodedException toCodedException(Throwable t) {
+    if (t instanceof WebClientResponseException wcre) {
+      log.error(SampledLogFilter.PER_ITEM, "open-meteo HTTP error: {}", wcre.getMessage());
+      return new CodedException(
           ExitCodes.NETWORK, "open-meteo HTTP error: " + wcre.getMessage(), wcre);
-    } catch (RuntimeException re) {
-      log.error("open-meteo network/runtime error: {}", re.toString());
-      Throwable unwrapped = Exceptions.unwrap(re);
-      throw new CodedException(
-          ExitCodes.NETWORK, "open-meteo network error: " + unwrapped.getMessage(), unwrapped);
     }
+    // treat reactor / timeout / other network issues as network failures
+    log.error(SampledLogFilter.PER_ITEM, "open-meteo network/runtime error: {}", t.toString());
+    Throwable unwrapped = Exceptions.unwrap(t);
+    return new CodedException(
+        ExitCodes.NETWORK, "open-meteo network error: " + unwrapped.getMessage(), unwrapped);
   }
 
   // Internal wrapper to map root JSON containing current_weather
@@ -0,0 +1,32 @@
+package com.aiddbot.archetype.cli.location;
+
+import java.util.Locale;
+
+/**
+ * Immutable latitude/longitude pair in decimal degrees.
+ *
+ * <p>Shared input type for commands that work on more than one location (e.g. {@code
+ * weather-batch}). Construction validates ranges so invalid input is reported as {@link
+ * com.aiddbot.archetype.cli.runtime.ExitCodes#VALIDATION} by the default exception mapper.
+ *
+ * @param lat latitude in decimal degrees, within [-90, 90]
+ * @param lon longitude in decimal degrees, within [-180, 180]
+ */
+public record Coordinates(double lat, double lon) {
+
+  public Coordinates {
+    if (Double.isNaN(lat) || lat < -90.0 || lat > 90.0) {
+      throw new IllegalArgumentException("latitude out of range: " + lat);
+    }
+    if (Double.isNaN(lon) || lon < -180.0 || lon > 180.0) {
+      throw new IllegalArgumentException("longitude out of range: " + lon);
+    }
+  }
+
+  /**
+   * @return compact label like {@code 40.4168,-3.7038} used to tag batch output lines
+   */
+  public String label() {
+    return String.format(Locale.US, "%.4f,%.4f", lat, lon);
+  }
+}
@@ -0,0 +1,33 @@
+package com.aiddbot.archetype.cli.location;
+
+import java.util.Objects;
+
+/**
+ * Reads coordinate pairs from text, one location per line.
+ *
+ * <p>Accepted line formats are {@code lat,lon}, {@code lat;lon} or whitespace separated values.
+ */
+public final class CoordinatesReader {
+
+  private CoordinatesReader() {}
+
+  /**
+   * Parse a single line into {@link Coordinates}.
+   *
+   * @param line text such as {@code 40.4168,-3.7038}
+   * @return parsed coordinates
+   * @throws IllegalArgumentException when the line is malformed or out of range
+   */
+  public static Coordinates parse(String line) {
+    Objects.requireNonNull(line, "line");
+    String[] parts = line.trim().split("\\s*[,;]\\s*|\\s+");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("expected 'lat,lon' but got: " + line);
+    }
+    try {
+      return new Coordinates(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("invalid coordinates: " + line, e);
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package com.aiddbot.archetype.cli.location;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Offline city gazetteer resolving place names to coordinates without any HTTP call.
+ *
+ * <p>Cities come from the bundled {@code gazetteer/cities.csv} resource ({@code
+ * name,country,lat,lon,population}). The index is a sorted array of normalized names (lower case,
+ * accents removed) with parallel primitive arrays, so exact and prefix lookups are binary searches.
+ * It is built on first use, so commands that never ask for a city do not pay for it.
+ */
+@Component
+public class Gazetteer {
+
+  private static final Logger log = LoggerFactory.getLogger(Gazetteer.class);
+
+  static final String RESOURCE = "gazetteer/cities.csv";
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SPACES = Pattern.compile("\\s+");
+  private static final int MAX_SUGGESTIONS = 5;
+
+  /** A gazetteer entry. */
+  public record City(String name, String country, double lat, double lon, long population) {
+
+    /**
+     * @return display label like {@code Madrid, Spain}
+     */
+    public String label() {
+      return name + ", " + country;
+    }
+  }
+
+  private final String resource;
+  private volatile Index index;
+
+  public Gazetteer() {
+    this(RESOURCE);
+  }
+
+  Gazetteer(String resource) {
+    this.resource = resource;
+  }
+
+  /**
+   * Resolve a city name, optionally qualified with a country as {@code "City, Country"}.
+   *
+   * <p>An exact name match wins; otherwise a prefix that identifies a single city name is
+   * accepted. When several cities share a name, the one with the largest population is chosen.
+   * Matching ignores case and accents.
+   *
+   * @param query city name or prefix, e.g. {@code "Valencia, Venezuela"} or {@code "sevil"}
+   * @return the matched city, or empty when nothing matches
+   * @throws IllegalArgumentException when a prefix matches several different city names
+   */
+  public Optional<City> find(String query) {
+    String namePart = query;
+    String countryPart = "";
+    int comma = query.lastIndexOf(',');
+    if (comma >= 0) {
+      namePart = query.substring(0, comma);
+      countryPart = normalize(query.substring(comma + 1));
+    }
+    String key = normalize(namePart);
+    if (key.isEmpty()) {
+      return Optional.empty();
+    }
+
+    Index idx = index();
+    int from = idx.lowerBound(key);
+    int exactEnd = from;
+    while (exactEnd < idx.size() && idx.keys[exactEnd].equals(key)) {
+      exactEnd++;
+    }
+    Optional<City> exact = idx.best(from, exactEnd, countryPart);
+    if (exact.isPresent()) {
+      return exact;
+    }
+
+    int prefixEnd = idx.prefixEnd(key);
+    Set<String> names = new LinkedHashSet<>();
+    for (int i = from; i < prefixEnd; i++) {
+      if (idx.countryMatches(i, countryPart)) {
+        names.add(idx.cities[i].name());
+      }
+    }
+    if (names.size() > 1) {
+      List<String> shown = new ArrayList<>(names);
+      String more = shown.size() > MAX_SUGGESTIONS ? ", ..." : "";
+      shown = shown.subList(0, Math.min(MAX_SUGGESTIONS, shown.size()));
+      throw new IllegalArgumentException(
+          "ambiguous city '" + query.trim() + "': " + String.join(", ", shown) + more);
+    }
+    return idx.best(from, prefixEnd, countryPart);
+  }
+
+  /**
+   * @return number of cities in the gazetteer (loads the index)
+   */
+  public int size() {
+    return index().size();
+  }
+
+  static String normalize(String text) {
+    String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+    String stripped = MARKS.matcher(decomposed).replaceAll("");
+    return SPACES.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+  }
+
+  private Index index() {
+    Index idx = index;
+    if (idx == null) {
+      synchronized (this) {
+        idx = index;
+        if (idx == null) {
+          idx = load(resource);
+          index = idx;
+        }
+      }
+    }
+    return idx;
+  }
+
+  private static Index load(String resource) {
+    long start = System.nanoTime();
+    List<City> cities = new ArrayList<>();
+    InputStream in = Gazetteer.class.getClassLoader().getResourceAsStream(resource);
+    if (in == null) {
+      throw new UncheckedIOException(new IOException("gazetteer resource not found: " + resource));
+    }
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank() || line.startsWith("#")) {
+          continue;
+        }
+        String[] f = line.split(",", -1);
+        cities.add(
+            new City(
+                f[0].trim(),
+                f[1].trim(),
+                Double.parseDouble(f[2]),
+                Double.parseDouble(f[3]),
+                Long.parseLong(f[4].trim())));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("cannot read gazetteer " + resource, e);
+    }
+
+    int n = cities.size();
+    String[] names = new String[n];
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      names[i] = normalize(cities.get(i).name());
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> names[a].compareTo(names[b]));
+
+    String[] keys = new String[n];
+    String[] countries = new String[n];
+    City[] sorted = new City[n];
+    for (int i = 0; i < n; i++) {
+      sorted[i] = cities.get(order[i]);
+      keys[i] = names[order[i]];
+      countries[i] = normalize(sorted[i].country());
+    }
+    log.info(
+        "gazetteer loaded: {} cities in {} ms",
+        sorted.length,
+        (System.nanoTime() - start) / 1_000_000);
+    return new Index(keys, countries, sorted);
+  }
+
+  // Sorted normalized names with parallel arrays of normalized countries and entries
+  private record Index(String[] keys, String[] countries, City[] cities) {
+
+    int size() {
+      return keys.length;
+    }
+
+    // First position whose key is >= the given key
+    int lowerBound(String key) {
+      int lo = 0;
+      int hi = keys.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (keys[mid].compareTo(key) < 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+
+    // Keys sharing a prefix are contiguous, so the range ends before prefix + U+FFFF
+    int prefixEnd(String prefix) {
+      return lowerBound(prefix + Character.MAX_VALUE);
+    }
+
+    boolean countryMatches(int i, String country) {
+      return country.isEmpty() || countries[i].startsWith(country);
+    }
+
+    Optional<City> best(int from, int to, String country) {
+      City best = null;
+      for (int i = from; i < to; i++) {
+        if (countryMatches(i, country)
+            && (best == null || cities[i].population() > best.population())) {
+          best = cities[i];
+        }
+      }
+      return Optional.ofNullable(best);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package com.aiddbot.archetype.cli.logging;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.MDC;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Per-command correlation IDs in the SLF4J {@link MDC}.
+ *
+ * <p>{@link #run(String, Supplier)} puts {@value #ID} and {@value #COMMAND} into the MDC of the
+ * calling thread for the duration of a command; the JSON encoders emit them on every line. The MDC
+ * is thread-local, so it is carried explicitly where work changes threads:
+ *
+ * <ul>
+ *   <li>{@link #wrap(Runnable)} for tasks handed to an executor.
+ *   <li>{@link #context()} written into a Reactor pipeline at its blocking boundary, and {@link
+ *       #onErrorMap(Predicate, Function)} to log mapped errors with it from Netty threads.
+ * </ul>
+ */
+public final class Correlation {
+
+  /** MDC key of the correlation ID. */
+  public static final String ID = "correlationId";
+
+  /** MDC key of the command name. */
+  public static final String COMMAND = "command";
+
+  private static final String CONTEXT_KEY = Correlation.class.getName();
+
+  private Correlation() {}
+
+  /**
+   * Run {@code body} with a fresh correlation ID in the MDC, restoring the previous MDC afterwards.
+   *
+   * @param command command name, e.g. {@code weather}
+   * @param body the command implementation
+   * @param <T> command result type
+   * @return the body's result
+   */
+  public static <T> T run(String command, Supplier<T> body) {
+    Map<String, String> previous = MDC.getCopyOfContextMap();
+    MDC.put(ID, Long.toHexString(ThreadLocalRandom.current().nextLong()));
+    MDC.put(COMMAND, command);
+    try {
+      return body.get();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  /**
+   * Capture the current MDC so that {@code task} runs with it on another thread.
+   *
+   * @param task task to run elsewhere
+   * @return a task that installs the captured MDC around {@code task}
+   */
+  public static Runnable wrap(Runnable task) {
+    Map<String, String> captured = MDC.getCopyOfContextMap();
+    if (captured == null) {
+      return task;
+    }
+    return () -> {
+      Map<String, String> previous = MDC.getCopyOfContextMap();
+      MDC.setContextMap(captured);
+      try {
+        task.run();
+      } finally {
+        restore(previous);
+      }
+    };
+  }
+
+  /**
+   * The current MDC as a Reactor {@link Context}, for {@code contextWrite} before blocking.
+   *
+   * @return context carrying the MDC, or an empty context when the MDC is empty
+   */
+  public static Context context() {
+    Map<String, String> captured = MDC.getCopyOfContextMap();
+    return captured == null ? Context.empty() : Context.of(CONTEXT_KEY, captured);
+  }
+
+  /**
+   * Like {@code onErrorMap}, but {@code mapper} runs with the subscriber's MDC from {@link
+   * #context()}, so anything it logs carries the correlation ID.
+   *
+   * @param when which errors to map
+   * @param mapper error mapping, which may log
+   * @param <T> element type
+   * @return a transformer for {@code Mono.transform}
+   */
+  public static <T> Function<Mono<T>, Mono<T>> onErrorMap(
+      Predicate<? super Throwable> when, Function<? super Throwable, ? extends Throwable> mapper) {
+    return mono ->
+        mono.onErrorResume(
+            when,
+            e -> Mono.deferContextual(ctx -> Mono.error(withMdc(ctx, () -> mapper.apply(e)))));
+  }
+
+  /**
+   * {@link Flux} variant of {@link #onErrorMap(Predicate, Function)}.
+   *
+   * @param when which errors to map
+   * @param mapper error mapping, which may log
+   * @param <T> element type
+   * @return a transformer for {@code Flux.transform}
+   */
+  public static <T> Function<Flux<T>, Flux<T>> onErrorMapMany(
+      Predicate<? super Throwable> when, Function<? super Throwable, ? extends Throwable> mapper) {
+    return flux ->
+        flux.onErrorResume(
+            when,
+            e -> Mono.deferContextual(ctx -> Mono.<T>error(withMdc(ctx, () -> mapper.apply(e)))));
+  }
+
+  private static <R> R withMdc(ContextView ctx, Supplier<R> body) {
+    Optional<Map<String, String>> captured = ctx.getOrEmpty(CONTEXT_KEY);
+    if (captured.isEmpty()) {
+      return body.get();
+    }
+    Map<String, String> previous = MDC.getCopyOfContextMap();
+    MDC.setContextMap(captured.get());
+    try {
+      return body.get();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  private static void restore(Map<String, String> previous) {
+    if (previous == null) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(previous);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.aiddbot.archetype.cli.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback {@link TurboFilter} sampling log events marked {@link #PER_ITEM}.
+ *
+ * <p>Per-item events are logged once per location or address, so a batch run that fails for many
+ * of them would spend more time writing logs than calling upstreams. This filter lets the first
+ * {@code first} marked events through, then one in every {@code rate}. Unmarked events are not
+ * affected. Configured in {@code logback-perf.xml}:
+ *
+ * <pre>{@code
+ * <turboFilter class="com.aiddbot.archetype.cli.logging.SampledLogFilter">
+ *   <first>20</first>
+ *   <rate>100</rate>
+ * </turboFilter>
+ * }</pre>
+ */
+public class SampledLogFilter extends TurboFilter {
+
+  /** Marker for log statements issued once per batch item. */
+  public static final Marker PER_ITEM = MarkerFactory.getMarker("PER_ITEM");
+
+  private final AtomicLong seen = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private long first = 20;
+  private long rate = 100;
+
+  @Override
+  public FilterReply decide(
+      Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (marker == null
+        || !marker.contains(PER_ITEM)
+        || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      return FilterReply.NEUTRAL;
+    }
+    long n = seen.incrementAndGet();
+    if (n <= first || (n - first) % rate == 0) {
+      return FilterReply.NEUTRAL;
+    }
+    dropped.incrementAndGet();
+    return FilterReply.DENY;
+  }
+
+  @Override
+  public void start() {
+    if (first < 0 || rate < 1) {
+      addError("first must be >= 0 and rate >= 1");
+      return;
+    }
+    super.start();
+  }
+
+  @Override
+  public void stop() {
+    if (dropped.get() > 0) {
+      addInfo(dropped.get() + " per-item log events sampled out");
+    }
+    super.stop();
+  }
+
+  public void setFirst(long first) {
+    this.first = first;
+  }
+
+  public void setRate(long rate) {
+    this.rate = rate;
+  }
+
+  /** Number of marked events denied so far. */
+  public long dropped() {
+    return dropped.get();
+  }
+}
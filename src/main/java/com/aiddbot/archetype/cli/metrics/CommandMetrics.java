@@ -0,0 +1,73 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import java.util.function.Supplier;
+
+import com.aiddbot.archetype.cli.diagnostics.CommandEvent;
+import com.aiddbot.archetype.cli.logging.Correlation;
+import com.aiddbot.archetype.cli.runtime.DefaultExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times shell commands and counts their failures by {@link ExitCodes}.
+ *
+ * <p>Records to the global Micrometer registry:
+ *
+ * <ul>
+ *   <li>{@code cli.command} timer, tagged {@code command} and {@code exit}.
+ *   <li>{@code cli.command.errors} counter, tagged {@code command} and {@code exit}, for failed
+ *       runs.
+ *   <li>{@code cli.render} timer for presenter formatting, via {@link #render(Supplier)}.
+ * </ul>
+ *
+ * <p>Each run also emits a {@link CommandEvent} for JDK Flight Recorder and runs with a fresh
+ * {@link Correlation} ID in the logging MDC.
+ */
+public final class CommandMetrics {
+
+  private static final ExitCodeExceptionMapper MAPPER = new DefaultExitCodeExceptionMapper();
+
+  private CommandMetrics() {}
+
+  /**
+   * Run a command body and record its duration and outcome.
+   *
+   * @param command command name, e.g. {@code weather}
+   * @param body the command implementation
+   * @param <T> command result type
+   * @return the body's result
+   */
+  public static <T> T record(String command, Supplier<T> body) {
+    Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+    CommandEvent event = CommandEvent.start(command);
+    ExitCodes exit = ExitCodes.SUCCESS;
+    try {
+      return Correlation.run(command, body);
+    } catch (RuntimeException | Error e) {
+      exit = exitCodeOf(e);
+      Metrics.counter("cli.command.errors", "command", command, "exit", exit.name()).increment();
+      throw e;
+    } finally {
+      sample.stop(Metrics.timer("cli.command", "command", command, "exit", exit.name()));
+      event.finish(exit);
+    }
+  }
+
+  /**
+   * Time presenter formatting.
+   *
+   * @param render the formatting call
+   * @param <T> rendered type
+   * @return its result
+   */
+  public static <T> T render(Supplier<T> render) {
+    return Metrics.timer("cli.render").record(render);
+  }
+
+  static ExitCodes exitCodeOf(Throwable t) {
+    return ExitCodes.of(MAPPER.map(t));
+  }
+}
@@ -0,0 +1,104 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * Renders the meters of a registry as plain text, one meter per line, sorted by name and tags.
+ *
+ * <p>Timers show count, mean, max and any configured percentiles in milliseconds, e.g. {@code
+ * cli.upstream.calls{outcome=success,upstream=open-meteo} count=12 mean=183.2ms max=412.0ms
+ * p50=170.0ms p95=400.0ms p99=412.0ms}. Meters that never recorded anything are skipped.
+ */
+public final class MetricsSnapshot {
+
+  private MetricsSnapshot() {}
+
+  public static String render(MeterRegistry registry) {
+    StringBuilder sb = new StringBuilder();
+    registry.getMeters().stream()
+        .sorted(Comparator.comparing(MetricsSnapshot::label))
+        .forEach(
+            meter -> {
+              String values = values(meter);
+              if (values != null) {
+                sb.append(label(meter)).append(' ').append(values).append(System.lineSeparator());
+              }
+            });
+    return sb.toString();
+  }
+
+  static String label(Meter meter) {
+    Meter.Id id = meter.getId();
+    if (id.getTags().isEmpty()) {
+      return id.getName();
+    }
+    StringJoiner tags = new StringJoiner(",", "{", "}");
+    id.getTags().forEach(t -> tags.add(t.getKey() + "=" + t.getValue()));
+    return id.getName() + tags;
+  }
+
+  // null when the meter has nothing worth printing
+  private static String values(Meter meter) {
+    if (meter instanceof Timer timer) {
+      HistogramSnapshot snap = timer.takeSnapshot();
+      if (snap.count() == 0) {
+        return null;
+      }
+      StringBuilder sb =
+          new StringBuilder(
+              String.format(
+                  Locale.US,
+                  "count=%d mean=%.1fms max=%.1fms",
+                  snap.count(),
+                  snap.mean(TimeUnit.MILLISECONDS),
+                  snap.max(TimeUnit.MILLISECONDS)));
+      for (ValueAtPercentile p : snap.percentileValues()) {
+        sb.append(
+            String.format(
+                Locale.US,
+                " p%s=%.1fms",
+                formatPercentile(p.percentile()),
+                p.value(TimeUnit.MILLISECONDS)));
+      }
+      return sb.toString();
+    }
+    if (meter instanceof Counter counter) {
+      return counter.count() == 0 ? null : String.format(Locale.US, "count=%.0f", counter.count());
+    }
+    if (meter instanceof FunctionCounter counter) {
+      return counter.count() == 0 ? null : String.format(Locale.US, "count=%.0f", counter.count());
+    }
+    if (meter instanceof Gauge gauge) {
+      if (isPercentileGauge(gauge)) {
+        // already shown on its timer's line
+        return null;
+      }
+      double value = gauge.value();
+      return Double.isNaN(value) ? null : String.format(Locale.US, "value=%s", value);
+    }
+    return null;
+  }
+
+  // Micrometer publishes each timer percentile as a '<timer>.percentile' gauge tagged 'phi'
+  private static boolean isPercentileGauge(Gauge gauge) {
+    Meter.Id id = gauge.getId();
+    return id.getName().endsWith(".percentile") && id.getTag("phi") != null;
+  }
+
+  private static String formatPercentile(double percentile) {
+    double pct = percentile * 100;
+    return pct == Math.rint(pct) ? Long.toString((long) pct) : Double.toString(pct);
+  }
+}
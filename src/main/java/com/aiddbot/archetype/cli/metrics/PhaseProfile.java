@@ -0,0 +1,128 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Wall-clock breakdown of one command run, printed by {@code --profile}.
+ *
+ * <p>Phases are derived from the Micrometer timers the CLI and Reactor Netty already record: the
+ * profile snapshots their total time before the command and reports the difference afterwards.
+ * Startup phases come from {@link StartupTimes}.
+ *
+ * <p>Network phases are summed over all requests of the run, so with concurrent requests they can
+ * add up to more than the command's wall-clock time. IP resolve contains its own network phases.
+ */
+public final class PhaseProfile {
+
+  private record Phase(String label, String timer) {}
+
+  private static final List<Phase> PHASES =
+      List.of(
+          new Phase("ip resolve", "cli.ip.resolve"),
+          new Phase("dns", "reactor.netty.http.client.address.resolver"),
+          new Phase("connect", "reactor.netty.http.client.connect.time"),
+          new Phase("tls", "reactor.netty.http.client.tls.handshake.time"),
+          new Phase("upstream wait", "reactor.netty.http.client.response.time"),
+          new Phase("json decode", "cli.upstream.decode"),
+          new Phase("render", "cli.render"));
+
+  private final MeterRegistry registry;
+  private final Map<Phase, Double> before = new LinkedHashMap<>();
+  private final long startNanos;
+
+  private PhaseProfile(MeterRegistry registry) {
+    this.registry = registry;
+    PHASES.forEach(p -> before.put(p, totalMillis(p)));
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Start profiling against the given registry.
+   *
+   * @param registry registry holding the phase timers
+   * @return a running profile
+   */
+  public static PhaseProfile start(MeterRegistry registry) {
+    return new PhaseProfile(registry);
+  }
+
+  /**
+   * Run {@code body} and, when {@code enabled}, print its profile to stderr afterwards, also when
+   * it fails.
+   *
+   * @param enabled whether {@code --profile} was given
+   * @param startup startup timings of this process
+   * @param body the command implementation
+   * @param <T> command result type
+   * @return the body's result
+   */
+  public static <T> T run(boolean enabled, StartupTimes startup, Supplier<T> body) {
+    return run(enabled, startup, System.err, body);
+  }
+
+  /**
+   * Run {@code body} and, when {@code enabled}, print its profile to {@code err} afterwards, also
+   * when it fails.
+   *
+   * @param enabled whether {@code --profile} was given
+   * @param startup startup timings of this process
+   * @param err stream the profile is printed to
+   * @param body the command implementation
+   * @param <T> command result type
+   * @return the body's result
+   */
+  public static <T> T run(
+      boolean enabled, StartupTimes startup, PrintStream err, Supplier<T> body) {
+    if (!enabled) {
+      return body.get();
+    }
+    PhaseProfile profile = start(Metrics.globalRegistry);
+    try {
+      return body.get();
+    } finally {
+      err.print(profile.report(startup));
+    }
+  }
+
+  /**
+   * Render the profile up to now.
+   *
+   * @param startup startup timings, or {@code null} to omit them
+   * @return multi-line report in milliseconds
+   */
+  public String report(StartupTimes startup) {
+    double command = (System.nanoTime() - startNanos) / 1_000_000.0;
+    StringBuilder sb = new StringBuilder("profile (ms):").append(System.lineSeparator());
+    if (startup != null && startup.context() != null) {
+      line(sb, "jvm start", startup.jvm().toMillis(), 2);
+      line(sb, "spring context", startup.context().toMillis(), 2);
+    }
+    line(sb, "command", command, 2);
+    for (Phase p : PHASES) {
+      line(sb, p.label(), totalMillis(p) - before.get(p), 4);
+    }
+    return sb.toString();
+  }
+
+  private double totalMillis(Phase phase) {
+    return registry.find(phase.timer()).timers().stream()
+        .mapToDouble(t -> t.totalTime(TimeUnit.MILLISECONDS))
+        .sum();
+  }
+
+  private static void line(StringBuilder sb, String label, double millis, int indent) {
+    sb.append(" ".repeat(indent))
+        .append(String.format(Locale.US, "%-" + (20 - indent) + "s%10.1f", label, millis))
+        .append(System.lineSeparator());
+  }
+}
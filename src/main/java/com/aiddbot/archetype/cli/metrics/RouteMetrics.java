@@ -0,0 +1,52 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Latency of HTTP API routes.
+ *
+ * <p>Records the {@code cli.server.requests} timer, tagged {@code route}, {@code method} and
+ * {@code status}, from the moment the route is entered until its response is ready. {@code status}
+ * is the HTTP status code, or {@code error} / {@code cancelled} when no response was produced.
+ */
+public final class RouteMetrics {
+
+  private RouteMetrics() {}
+
+  /**
+   * Filter timing every request to a route.
+   *
+   * @param route route name used as tag, e.g. {@code weather}
+   * @return a filter for {@code RouterFunction.filter}
+   */
+  public static HandlerFilterFunction<ServerResponse, ServerResponse> timed(String route) {
+    return (request, next) ->
+        Mono.defer(
+            () -> {
+              Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+              String method = request.method().name();
+              return next.handle(request)
+                  .doOnSuccess(
+                      response ->
+                          stop(
+                              sample,
+                              route,
+                              method,
+                              response == null
+                                  ? "none"
+                                  : String.valueOf(response.statusCode().value())))
+                  .doOnError(e -> stop(sample, route, method, "error"))
+                  .doOnCancel(() -> stop(sample, route, method, "cancelled"));
+            });
+  }
+
+  private static void stop(Timer.Sample sample, String route, String method, String status) {
+    sample.stop(
+        Metrics.timer("cli.server.requests", "route", route, "method", method, "status", status));
+  }
+}
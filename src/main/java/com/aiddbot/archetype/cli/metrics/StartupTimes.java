@@ -0,0 +1,40 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Captures how long the process took to become ready for commands.
+ *
+ * <p>Recorded when the context has started, which is before Spring Shell runs a non-interactive
+ * command. JVM time is everything from process start until {@code SpringApplication.run} began
+ * (class loading, JIT warm-up, {@code main}).
+ */
+@Component
+public class StartupTimes implements ApplicationListener<ApplicationStartedEvent> {
+
+  private volatile Duration context;
+  private volatile Duration total;
+
+  @Override
+  public void onApplicationEvent(ApplicationStartedEvent event) {
+    this.total = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+    this.context = event.getTimeTaken();
+  }
+
+  /** Time spent in Spring context startup, or {@code null} if not started yet. */
+  public Duration context() {
+    return context;
+  }
+
+  /** Time from JVM start to context start, or {@code null} if not started yet. */
+  public Duration jvm() {
+    Duration t = total;
+    Duration c = context;
+    return t == null || c == null ? null : t.minus(c);
+  }
+}
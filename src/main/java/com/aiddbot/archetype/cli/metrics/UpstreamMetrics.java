@@ -0,0 +1,59 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Metrics for upstream HTTP calls, complementing Reactor Netty's own connection metrics.
+ *
+ * <ul>
+ *   <li>{@code cli.upstream.decode} timer, tagged {@code upstream}: reading and decoding the
+ *       response body after the status line arrived.
+ *   <li>{@code cli.cache.lookups} counter, tagged {@code cache} and {@code result} ({@code hit} or
+ *       {@code miss}).
+ * </ul>
+ */
+public final class UpstreamMetrics {
+
+  private UpstreamMetrics() {}
+
+  /**
+   * Decode a response body like {@code retrieve().bodyToMono(type)} and time it.
+   *
+   * <p>Error statuses are turned into the same {@code WebClientResponseException} that {@code
+   * retrieve()} raises.
+   *
+   * @param upstream upstream name used as tag
+   * @param response the exchanged response
+   * @param type body type
+   * @param <T> body type
+   * @return the decoded body
+   */
+  public static <T> Mono<T> decode(String upstream, ClientResponse response, Class<T> type) {
+    if (response.statusCode().isError()) {
+      return response.createError();
+    }
+    return Mono.defer(
+        () -> {
+          Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+          return response
+              .bodyToMono(type)
+              .doOnTerminate(
+                  () -> sample.stop(Metrics.timer("cli.upstream.decode", "upstream", upstream)));
+        });
+  }
+
+  /**
+   * Count a cache lookup.
+   *
+   * @param cache cache name used as tag
+   * @param hit whether the lookup was served from the cache
+   */
+  public static void cacheLookup(String cache, boolean hit) {
+    Metrics.counter("cli.cache.lookups", "cache", cache, "result", hit ? "hit" : "miss")
+        .increment();
+  }
+}
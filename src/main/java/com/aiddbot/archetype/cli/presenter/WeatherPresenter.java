@@ -1,5 +1,9 @@
 package com.aiddbot.archetype.cli.presenter;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.stereotype.Component;
 
 import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
@@ -46,6 +50,70 @@ public final class WeatherPresenter {
     return sb.toString();
   }
 
+  /**
+   * Format a single-line summary suitable for streaming batch output.
+   *
+   * @param locationText label identifying the location (e.g., "40.4168,-3.7038")
+   * @param obs current observation to render
+   * @return one line string like: "40.4168,-3.7038: 23.4 C, wind 3.1 m/s, Clear sky"
+   */
+  public String presentLine(String locationText, WeatherObservation obs) {
+    String loc = (locationText == null || locationText.isBlank()) ? "your location" : locationText;
+    if (obs == null) {
+      return String.format("%s: no weather observation available", loc);
+    }
+    return String.format(
+        "%s: %s, %s, %s",
+        loc,
+        formatTemperature(obs.getTemperatureCelsius()),
+        formatWind(obs.getWindSpeed()),
+        descriptionForCode(obs.getWeatherCode()));
+  }
+
+  /**
+   * Format only the fields that changed between two observations of one location.
+   *
+   * <p>Fields are compared as displayed, so changes below the printed precision are ignored. With
+   * no previous observation the full {@link #presentLine(String, WeatherObservation)} is returned.
+   *
+   * @param locationText label identifying the location
+   * @param previous observation printed last, or {@code null} on the first update
+   * @param current newly fetched observation
+   * @return one line like "Madrid: 24.1 C, Drizzle / Rain", or empty when nothing visible changed
+   */
+  public Optional<String> presentChanges(
+      String locationText, WeatherObservation previous, WeatherObservation current) {
+    if (previous == null) {
+      return Optional.of(presentLine(locationText, current));
+    }
+    List<String> changed = new ArrayList<>(3);
+    String temp = formatTemperature(current.getTemperatureCelsius());
+    if (!temp.equals(formatTemperature(previous.getTemperatureCelsius()))) {
+      changed.add(temp);
+    }
+    String wind = formatWind(current.getWindSpeed());
+    if (!wind.equals(formatWind(previous.getWindSpeed()))) {
+      changed.add(wind);
+    }
+    String condition = descriptionForCode(current.getWeatherCode());
+    if (!condition.equals(descriptionForCode(previous.getWeatherCode()))) {
+      changed.add(condition);
+    }
+    if (changed.isEmpty()) {
+      return Optional.empty();
+    }
+    String loc = (locationText == null || locationText.isBlank()) ? "your location" : locationText;
+    return Optional.of(loc + ": " + String.join(", ", changed));
+  }
+
+  private static String formatTemperature(double celsius) {
+    return String.format(java.util.Locale.US, "%.1f C", celsius);
+  }
+
+  private static String formatWind(double speed) {
+    return String.format(java.util.Locale.US, "wind %.1f m/s", speed);
+  }
+
   // Map WMO weather codes to short, human-readable descriptions.
   private static String descriptionForCode(int code) {
     if (code == 0)
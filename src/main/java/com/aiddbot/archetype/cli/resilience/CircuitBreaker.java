@@ -0,0 +1,221 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Count-based circuit breaker for one upstream service.
+ *
+ * <ul>
+ *   <li>{@code CLOSED}: calls pass; the outcomes of the last {@code window} calls are kept. Once
+ *       at least {@code minimumCalls} are recorded and the failure rate reaches the threshold, the
+ *       breaker opens.
+ *   <li>{@code OPEN}: calls fail immediately with {@link ExitCodes#NETWORK} until {@code
+ *       openDuration} has passed.
+ *   <li>{@code HALF_OPEN}: up to {@code halfOpenProbes} calls are let through. If all of them
+ *       succeed the breaker closes; the first failure opens it again.
+ * </ul>
+ *
+ * <p>Outcomes of calls admitted before the last state change are ignored, so a slow call from a
+ * previous phase cannot close or reopen the breaker.
+ */
+public final class CircuitBreaker {
+
+  private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+  /** Breaker state. */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private static final long REJECTED = -1;
+
+  private final String name;
+  private final int minimumCalls;
+  private final double failureRatePercent;
+  private final Duration openDuration;
+  private final int halfOpenProbes;
+  private final Clock clock;
+
+  // Guarded by this
+  private final boolean[] outcomes;
+  private int recorded;
+  private int next;
+  private int failures;
+  private State state = State.CLOSED;
+  private long generation;
+  private Instant openedAt;
+  private int probesStarted;
+  private int probesSucceeded;
+
+  /**
+   * @param name upstream name used in messages
+   * @param window number of most recent calls considered for the failure rate
+   * @param minimumCalls calls needed in the window before the breaker may open
+   * @param failureRatePercent failure rate, in percent, at which the breaker opens
+   * @param openDuration how long the breaker stays open before probing
+   * @param halfOpenProbes successful probes needed to close again
+   * @param clock time source
+   */
+  public CircuitBreaker(
+      String name,
+      int window,
+      int minimumCalls,
+      double failureRatePercent,
+      Duration openDuration,
+      int halfOpenProbes,
+      Clock clock) {
+    if (window < 1 || minimumCalls < 1 || minimumCalls > window || halfOpenProbes < 1) {
+      throw new IllegalArgumentException("invalid circuit breaker sizing");
+    }
+    this.name = name;
+    this.outcomes = new boolean[window];
+    this.minimumCalls = minimumCalls;
+    this.failureRatePercent = failureRatePercent;
+    this.openDuration = openDuration;
+    this.halfOpenProbes = halfOpenProbes;
+    this.clock = clock;
+  }
+
+  /**
+   * Guard {@code call} with this breaker.
+   *
+   * @param call the upstream call
+   * @param isFailure which errors count as upstream failures; other errors count as successes
+   * @param <T> response type
+   * @return a lazy {@link Mono} that fails fast with {@link ExitCodes#NETWORK} while open
+   */
+  public <T> Mono<T> protect(Mono<T> call, Predicate<Throwable> isFailure) {
+    return Mono.defer(
+        () -> {
+          long permit = tryAcquire();
+          if (permit == REJECTED) {
+            return Mono.error(
+                new CodedException(
+                    ExitCodes.NETWORK, name + " is failing; circuit open, not calling it"));
+          }
+          AtomicBoolean settled = new AtomicBoolean();
+          return call.doOnSuccess(
+                  v -> {
+                    if (settled.compareAndSet(false, true)) {
+                      onSuccess(permit);
+                    }
+                  })
+              .doOnError(
+                  e -> {
+                    if (settled.compareAndSet(false, true)) {
+                      if (isFailure.test(e)) {
+                        onFailure(permit);
+                      } else {
+                        onSuccess(permit);
+                      }
+                    }
+                  })
+              .doOnCancel(
+                  () -> {
+                    if (settled.compareAndSet(false, true)) {
+                      onCancel(permit);
+                    }
+                  });
+        });
+  }
+
+  public synchronized State state() {
+    return state;
+  }
+
+  // Returns the generation the call was admitted in, or REJECTED
+  synchronized long tryAcquire() {
+    if (state == State.OPEN) {
+      if (clock.instant().isBefore(openedAt.plus(openDuration))) {
+        return REJECTED;
+      }
+      transition(State.HALF_OPEN);
+    }
+    if (state == State.HALF_OPEN) {
+      if (probesStarted >= halfOpenProbes) {
+        return REJECTED;
+      }
+      probesStarted++;
+    }
+    return generation;
+  }
+
+  synchronized void onSuccess(long permit) {
+    if (permit != generation) {
+      return;
+    }
+    if (state == State.HALF_OPEN) {
+      if (++probesSucceeded >= halfOpenProbes) {
+        transition(State.CLOSED);
+      }
+    } else {
+      record(false);
+    }
+  }
+
+  synchronized void onFailure(long permit) {
+    if (permit != generation) {
+      return;
+    }
+    if (state == State.HALF_OPEN) {
+      transition(State.OPEN);
+      return;
+    }
+    record(true);
+    if (recorded >= minimumCalls && failures * 100.0 / recorded >= failureRatePercent) {
+      transition(State.OPEN);
+    }
+  }
+
+  synchronized void onCancel(long permit) {
+    if (permit == generation && state == State.HALF_OPEN) {
+      // let another probe take the place of the abandoned one
+      probesStarted--;
+    }
+  }
+
+  private void record(boolean failure) {
+    if (recorded == outcomes.length) {
+      if (outcomes[next]) {
+        failures--;
+      }
+    } else {
+      recorded++;
+    }
+    outcomes[next] = failure;
+    if (failure) {
+      failures++;
+    }
+    next = (next + 1) % outcomes.length;
+  }
+
+  private void transition(State to) {
+    log.warn("{} circuit {} -> {}", name, state, to);
+    state = to;
+    generation++;
+    probesStarted = 0;
+    probesSucceeded = 0;
+    if (to == State.OPEN) {
+      openedAt = clock.instant();
+    }
+    if (to == State.CLOSED) {
+      recorded = 0;
+      next = 0;
+      failures = 0;
+    }
+  }
+}
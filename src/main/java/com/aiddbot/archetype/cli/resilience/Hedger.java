@@ -0,0 +1,155 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedged requests for one upstream service.
+ *
+ * <p>When enabled, {@link #hedge(Supplier)} subscribes to the call and, if it has not signalled
+ * within the hedge delay, subscribes to a second copy. The first signal from either copy wins and
+ * the other is cancelled, which for {@code WebClient} aborts its HTTP exchange.
+ *
+ * <p>The hedge delay is the configured percentile of recently observed response times, so only
+ * the slowest calls are duplicated. Until {@value #MIN_SAMPLES} responses have been seen, the
+ * configured fallback delay is used instead.
+ *
+ * <p>Only use this for idempotent calls.
+ */
+public final class Hedger {
+
+  private static final Logger log = LoggerFactory.getLogger(Hedger.class);
+
+  /** Responses needed before the percentile replaces the fallback delay. */
+  static final int MIN_SAMPLES = 20;
+
+  private static final int WINDOW = 256;
+
+  private final String name;
+  private final boolean enabled;
+  private final double percentile;
+  private final Duration fallbackDelay;
+
+  // Ring buffer of recent response times in nanoseconds
+  private final long[] samples = new long[WINDOW];
+  private long recorded;
+
+  private final AtomicLong calls = new AtomicLong();
+  private final AtomicLong fired = new AtomicLong();
+  private final AtomicLong won = new AtomicLong();
+
+  /**
+   * @param name upstream name used in logs
+   * @param enabled whether calls are hedged at all
+   * @param percentile response-time percentile used as hedge delay, e.g. {@code 95}
+   * @param fallbackDelay hedge delay used until enough responses have been observed
+   */
+  public Hedger(String name, boolean enabled, double percentile, Duration fallbackDelay) {
+    if (percentile <= 0 || percentile >= 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    }
+    this.name = name;
+    this.enabled = enabled;
+    this.percentile = percentile;
+    this.fallbackDelay = fallbackDelay;
+  }
+
+  /** A hedger that never duplicates calls. */
+  public static Hedger disabled(String name) {
+    return new Hedger(name, false, 95, Duration.ZERO);
+  }
+
+  /**
+   * Run {@code call}, racing a duplicate against it when it is slow.
+   *
+   * @param call supplies a fresh, cold copy of the request on each invocation
+   * @param <T> response type
+   * @return a lazy {@link Mono} with the first signal of either copy
+   */
+  public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+    if (!enabled) {
+      return Mono.defer(call);
+    }
+    return Mono.defer(
+        () -> {
+          calls.incrementAndGet();
+          Duration delay = currentDelay();
+          Mono<T> primary = timed(call.get());
+          Mono<T> backup =
+              Mono.delay(delay)
+                  .then(
+                      Mono.defer(
+                          () -> {
+                            fired.incrementAndGet();
+                            log.debug("{} hedge fired after {} ms", name, delay.toMillis());
+                            return timed(call.get())
+                                .doOnNext(
+                                    v -> {
+                                      won.incrementAndGet();
+                                      log.debug("{} hedge won", name);
+                                    });
+                          }));
+          return Mono.firstWithSignal(primary, backup);
+        });
+  }
+
+  /** Current hedge delay: the configured percentile, or the fallback until enough samples. */
+  public Duration currentDelay() {
+    long[] snapshot;
+    synchronized (samples) {
+      if (recorded < MIN_SAMPLES) {
+        return fallbackDelay;
+      }
+      snapshot = Arrays.copyOf(samples, (int) Math.min(recorded, WINDOW));
+    }
+    Arrays.sort(snapshot);
+    int idx = (int) Math.ceil(percentile / 100.0 * snapshot.length) - 1;
+    return Duration.ofNanos(snapshot[Math.max(0, idx)]);
+  }
+
+  /** Number of calls that went through the hedging path. */
+  public long calls() {
+    return calls.get();
+  }
+
+  /** Number of duplicate requests sent because the first was slower than the hedge delay. */
+  public long fired() {
+    return fired.get();
+  }
+
+  /** Number of calls answered by the duplicate rather than the original request. */
+  public long won() {
+    return won.get();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s hedging: calls=%d fired=%d won=%d", name, calls(), fired(), won());
+  }
+
+  private <T> Mono<T> timed(Mono<T> call) {
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          return call.doOnNext(v -> record(System.nanoTime() - start));
+        });
+  }
+
+  private void record(long nanos) {
+    synchronized (samples) {
+      samples[(int) (recorded % WINDOW)] = nanos;
+      recorded++;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent calls with the same key into one in-flight call.
+ *
+ * <p>The first caller for a key starts the call; callers arriving before it terminates subscribe
+ * to the same result or error instead of starting their own. Once it terminates the key is
+ * released, so the next caller starts a fresh call. Results are never kept beyond that; caching is
+ * left to the caller.
+ *
+ * <p>A started call runs to completion even if every caller cancels, so a shared result is never
+ * cut short by one impatient caller.
+ *
+ * @param <K> key type; must implement {@code equals}/{@code hashCode}
+ * @param <V> result type
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+  private final AtomicLong started = new AtomicLong();
+  private final AtomicLong joined = new AtomicLong();
+
+  /**
+   * Run {@code call} for {@code key}, or join the call already in flight for it.
+   *
+   * @param key identity of the call
+   * @param call supplies the call; invoked only by the caller that starts it
+   * @return a lazy {@link Mono} with the shared result
+   */
+  public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+    return Mono.defer(
+        () -> {
+          boolean[] leader = new boolean[1];
+          Mono<V> shared =
+              inFlight.computeIfAbsent(
+                  key,
+                  k -> {
+                    leader[0] = true;
+                    AtomicReference<Mono<V>> self = new AtomicReference<>();
+                    Runnable release = () -> inFlight.remove(k, self.get());
+                    // Released before the result reaches any caller, so a caller arriving once
+                    // it has been published starts a fresh call instead of reusing this one
+                    Mono<V> m =
+                        Mono.defer(call).doOnTerminate(release).doOnCancel(release).cache();
+                    self.set(m);
+                    return m;
+                  });
+          (leader[0] ? started : joined).incrementAndGet();
+          return shared;
+        });
+  }
+
+  /** Number of calls actually started. */
+  public long started() {
+    return started.get();
+  }
+
+  /** Number of callers that joined a call already in flight instead of starting one. */
+  public long joined() {
+    return joined.get();
+  }
+}
@@ -0,0 +1,30 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.core.Exceptions;
+
+/**
+ * Classifies upstream errors that are worth retrying and that count against a circuit breaker.
+ *
+ * <p>Transient: connect/read failures and timeouts, HTTP 5xx and HTTP 429. Everything else, such
+ * as other 4xx statuses or payload validation errors, would fail the same way on a retry.
+ */
+public final class TransientErrors {
+
+  private TransientErrors() {}
+
+  public static boolean isTransient(Throwable t) {
+    Throwable e = Exceptions.unwrap(t);
+    if (e instanceof WebClientResponseException wcre) {
+      return wcre.getStatusCode().is5xxServerError() || wcre.getStatusCode().value() == 429;
+    }
+    return e instanceof WebClientRequestException
+        || e instanceof TimeoutException
+        || e instanceof IOException;
+  }
+}
@@ -0,0 +1,149 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Resilience applied to every raw HTTP call made to one upstream service.
+ *
+ * <p>Layers, from the wire outwards: optional {@link Hedger}, {@link CircuitBreaker}, then bounded
+ * retries with jittered exponential backoff for {@link TransientErrors transient} failures. While
+ * the breaker is open, calls fail fast and are not retried. When retries are exhausted the last
+ * error is propagated unchanged, so callers keep their own error mapping.
+ *
+ * <p>Each call is timed as {@code cli.upstream.calls} (tags {@code upstream}, {@code outcome}),
+ * retries are counted as {@code cli.upstream.retries}, and hedge and breaker state are exposed as
+ * {@code cli.upstream.hedges.*} and {@code cli.upstream.breaker.open}.
+ */
+public final class UpstreamPolicy {
+
+  private final String name;
+  private final Hedger hedger;
+  private final CircuitBreaker breaker;
+  private final Retry retry;
+
+  /**
+   * @param name upstream name used as metrics tag
+   * @param hedger hedging policy
+   * @param breaker circuit breaker, or {@code null} to disable it
+   * @param retry retry spec, or {@code null} to disable retries
+   */
+  public UpstreamPolicy(String name, Hedger hedger, CircuitBreaker breaker, Retry retry) {
+    this.name = name;
+    this.hedger = hedger;
+    this.breaker = breaker;
+    this.retry = retry;
+    registerMeters();
+  }
+
+  /**
+   * Build the policy for {@code name} from the {@code cli.network} settings.
+   *
+   * @param name upstream name used in logs and error messages
+   * @param net network properties
+   * @return the configured policy
+   */
+  public static UpstreamPolicy of(String name, CliProperties.Network net) {
+    Hedger hedger =
+        new Hedger(
+            name,
+            net.isHedgeEnabled(),
+            net.getHedgePercentile(),
+            Duration.ofMillis(net.getHedgeDelayMs()));
+    CircuitBreaker breaker =
+        net.isBreakerEnabled()
+            ? new CircuitBreaker(
+                name,
+                net.getBreakerWindow(),
+                Math.min(net.getBreakerMinimumCalls(), net.getBreakerWindow()),
+                net.getBreakerFailureRate(),
+                Duration.ofMillis(net.getBreakerOpenMs()),
+                net.getBreakerHalfOpenProbes(),
+                Clock.systemUTC())
+            : null;
+    Retry retry =
+        net.getRetryMaxAttempts() > 0
+            ? Retry.backoff(net.getRetryMaxAttempts(), Duration.ofMillis(net.getRetryBackoffMs()))
+                .maxBackoff(Duration.ofMillis(net.getRetryMaxBackoffMs()))
+                .jitter(net.getRetryJitter())
+                .filter(TransientErrors::isTransient)
+                .doBeforeRetry(
+                    signal -> Metrics.counter("cli.upstream.retries", "upstream", name).increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure())
+            : null;
+    return new UpstreamPolicy(name, hedger, breaker, retry);
+  }
+
+  /**
+   * Run an upstream call through all layers.
+   *
+   * @param call supplies a fresh, cold copy of the request on each invocation
+   * @param <T> response type
+   * @return a lazy {@link Mono} with the response or the final error
+   */
+  public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+    return guard(() -> hedger.hedge(call));
+  }
+
+  /**
+   * Like {@link #execute(Supplier)} but never hedged, for calls that must not be duplicated.
+   *
+   * @param call supplies a fresh, cold copy of the request on each invocation
+   * @param <T> response type
+   * @return a lazy {@link Mono} with the response or the final error
+   */
+  public <T> Mono<T> guard(Supplier<Mono<T>> call) {
+    Mono<T> attempt = Mono.defer(call);
+    if (breaker != null) {
+      attempt = breaker.protect(attempt, TransientErrors::isTransient);
+    }
+    Mono<T> guarded = retry != null ? attempt.retryWhen(retry) : attempt;
+    return Mono.defer(
+        () -> {
+          Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+          return guarded
+              .doOnSuccess(v -> sample.stop(callTimer("success")))
+              .doOnError(e -> sample.stop(callTimer("error")));
+        });
+  }
+
+  private Timer callTimer(String outcome) {
+    return Metrics.timer("cli.upstream.calls", "upstream", name, "outcome", outcome);
+  }
+
+  private void registerMeters() {
+    FunctionCounter.builder("cli.upstream.hedges.fired", hedger, Hedger::fired)
+        .tag("upstream", name)
+        .register(Metrics.globalRegistry);
+    FunctionCounter.builder("cli.upstream.hedges.won", hedger, Hedger::won)
+        .tag("upstream", name)
+        .register(Metrics.globalRegistry);
+    if (breaker != null) {
+      Gauge.builder(
+              "cli.upstream.breaker.open",
+              breaker,
+              b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+          .tag("upstream", name)
+          .register(Metrics.globalRegistry);
+    }
+  }
+
+  public Hedger hedger() {
+    return hedger;
+  }
+
+  /** The circuit breaker, or {@code null} when disabled. */
+  public CircuitBreaker breaker() {
+    return breaker;
+  }
+}
@@ -0,0 +1,99 @@
+package com.aiddbot.archetype.cli.runtime;
+
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import com.aiddbot.archetype.cli.logging.Correlation;
+
+/**
+ * Runs one virtual-thread task per item with a cap on how many run at once.
+ *
+ * <p>Tasks may block freely (e.g. {@code Mono.block()}); a parked virtual thread does not hold a
+ * platform thread. Items are pulled from the iterator only when a permit is free, so a large input
+ * is never read ahead of the work.
+ *
+ * <p>Cancellation is structured: the call returns only after every started task has finished. If
+ * a task throws, or the calling thread is interrupted, the remaining tasks are interrupted and the
+ * failure is rethrown to the caller. Tasks should handle their expected errors themselves.
+ */
+public final class BoundedTasks {
+
+  private BoundedTasks() {}
+
+  /**
+   * Run {@code task} for every item on its own virtual thread.
+   *
+   * @param items items to process, consumed lazily
+   * @param limit maximum number of tasks running at once
+   * @param task work for one item
+   * @param <T> item type
+   * @throws CodedException with {@link ExitCodes#RUNTIME} when interrupted
+   * @throws RuntimeException the first exception thrown by a task or by the iterator
+   */
+  public static <T> void forEach(Iterator<T> items, int limit, Consumer<? super T> task) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be at least 1");
+    }
+    Semaphore permits = new Semaphore(limit);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // close() waits for all submitted tasks, so no task outlives this call
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      try {
+        while (failure.get() == null) {
+          permits.acquire();
+          T item;
+          try {
+            if (!items.hasNext()) {
+              permits.release();
+              break;
+            }
+            item = items.next();
+          } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+          }
+          // Tasks log with the caller's correlation ID
+          executor.execute(
+              Correlation.wrap(
+                  () -> {
+                    try {
+                      task.accept(item);
+                    } catch (Throwable t) {
+                      if (failure.compareAndSet(null, t)) {
+                        executor.shutdownNow();
+                      }
+                    } finally {
+                      permits.release();
+                    }
+                  }));
+        }
+      } catch (RejectedExecutionException ree) {
+        // a failed task shut the executor down; its failure is rethrown below
+      } catch (InterruptedException ie) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+        throw new CodedException(ExitCodes.RUNTIME, "interrupted", ie);
+      } catch (RuntimeException e) {
+        executor.shutdownNow();
+        throw e;
+      }
+    }
+
+    Throwable t = failure.get();
+    if (t instanceof RuntimeException re) {
+      throw re;
+    }
+    if (t instanceof Error err) {
+      throw err;
+    }
+    if (t != null) {
+      throw new CodedException(ExitCodes.RUNTIME, t.getMessage(), t);
+    }
+  }
+}
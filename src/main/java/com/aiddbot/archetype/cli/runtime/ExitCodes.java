@@ -39,4 +39,19 @@ public enum ExitCodes {
   public int code() {
     return code;
   }
+
+  /**
+   * The constant for a numeric exit code.
+   *
+   * @param code process exit code
+   * @return its constant, or {@link #UNKNOWN} for codes the CLI does not use
+   */
+  public static ExitCodes of(int code) {
+    for (ExitCodes c : values()) {
+      if (c.code == code) {
+        return c;
+      }
+    }
+    return UNKNOWN;
+  }
 }
@@ -0,0 +1,37 @@
+package com.aiddbot.archetype.cli.server;
+
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Binds a Reactor Netty HTTP server to a set of routes.
+ *
+ * <p>The application runs with {@code spring.main.web-application-type=none}, so no web server is
+ * auto-configured; the {@code serve} command starts this one on demand and the other commands
+ * never load it. Handlers run on Reactor Netty's server event loops and must not block.
+ */
+public final class ApiServer {
+
+  private ApiServer() {}
+
+  /**
+   * Start serving {@code routes}.
+   *
+   * @param host address to bind
+   * @param port port to bind; 0 picks a free one
+   * @param routes the API
+   * @return the running server; {@link DisposableServer#port()} gives the bound port
+   */
+  public static DisposableServer bind(String host, int port, RouterFunction<ServerResponse> routes) {
+    return HttpServer.create()
+        .host(host)
+        .port(port)
+        .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(routes)))
+        .bindNow();
+  }
+}
@@ -0,0 +1,91 @@
+package com.aiddbot.archetype.cli.server;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+import com.aiddbot.archetype.cli.metrics.UpstreamMetrics;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory cache of the latest observation per grid cell, for the HTTP API server.
+ *
+ * <p>Answers repeated requests for the same place without touching the shared {@code
+ * ObservationCache} file. Entries expire after the TTL and the least recently used one is dropped
+ * once the capacity is reached. Misses are loaded through {@link
+ * OpenMeteoClient#fetchCurrentAsync(double, double)}, whose {@code SingleFlight} already makes
+ * concurrent misses for one cell share a single upstream request; only successful results are
+ * kept.
+ *
+ * <p>Lookups are counted in {@code cli.cache.lookups} with {@code cache=server}.
+ */
+final class RecentObservations {
+
+  private record Entry(WeatherObservation observation, long expiresAtNanos) {}
+
+  private final int capacity;
+  private final long ttlNanos;
+  private final LongSupplier nanoTime;
+  private final Map<OpenMeteoClient.Cell, Entry> entries;
+
+  RecentObservations(int capacity, Duration ttl) {
+    this(capacity, ttl, System::nanoTime);
+  }
+
+  RecentObservations(int capacity, Duration ttl, LongSupplier nanoTime) {
+    this.capacity = capacity;
+    this.ttlNanos = ttl.toNanos();
+    this.nanoTime = nanoTime;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * The cached observation for {@code cell}, or the result of {@code load}, which is then cached.
+   *
+   * @param cell grid cell of the requested place
+   * @param load fetches the observation on a miss
+   * @return a lazy {@link Mono} with the observation
+   */
+  Mono<WeatherObservation> get(
+      OpenMeteoClient.Cell cell, Supplier<Mono<WeatherObservation>> load) {
+    return Mono.defer(
+        () -> {
+          WeatherObservation hit = lookup(cell);
+          UpstreamMetrics.cacheLookup("server", hit != null);
+          if (hit != null) {
+            return Mono.just(hit);
+          }
+          return load.get().doOnNext(obs -> put(cell, obs));
+        });
+  }
+
+  /** Number of cells currently held, expired ones included until they are looked up or evicted. */
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private synchronized WeatherObservation lookup(OpenMeteoClient.Cell cell) {
+    Entry entry = entries.get(cell);
+    if (entry == null) {
+      return null;
+    }
+    if (nanoTime.getAsLong() - entry.expiresAtNanos() >= 0) {
+      entries.remove(cell);
+      return null;
+    }
+    return entry.observation();
+  }
+
+  private synchronized void put(OpenMeteoClient.Cell cell, WeatherObservation obs) {
+    entries.put(cell, new Entry(obs, nanoTime.getAsLong() + ttlNanos));
+    if (entries.size() > capacity) {
+      // access order: the first entry is the least recently used
+      entries.remove(entries.keySet().iterator().next());
+    }
+  }
+}
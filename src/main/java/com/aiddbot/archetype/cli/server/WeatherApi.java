@@ -0,0 +1,221 @@
+package com.aiddbot.archetype.cli.server;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+import com.aiddbot.archetype.cli.location.Coordinates;
+import com.aiddbot.archetype.cli.location.Gazetteer;
+import com.aiddbot.archetype.cli.logging.Correlation;
+import com.aiddbot.archetype.cli.metrics.MetricsSnapshot;
+import com.aiddbot.archetype.cli.metrics.RouteMetrics;
+import com.aiddbot.archetype.cli.presenter.WeatherPresenter;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.DefaultExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Routes of the HTTP API served by the {@code serve} command.
+ *
+ * <ul>
+ *   <li>{@code GET /weather?lat=..&lon=..} or {@code GET /weather?city=..}: current weather as
+ *       JSON, see {@link WeatherResponse}. There is no IP-based lookup: the server's own address
+ *       says nothing about its callers.
+ *   <li>{@code GET /metrics}: the {@code metrics} snapshot as plain text.
+ * </ul>
+ *
+ * <p>Weather goes through the same non-blocking flow as the {@code weather} command, fronted by
+ * {@link RecentObservations}, and is bounded by {@code cli.network.overall-timeout-ms}. Errors are
+ * answered as {@link ErrorResponse} with the CLI exit code: {@link ExitCodes#VALIDATION} as 400,
+ * {@link ExitCodes#NETWORK} as 502 and anything else as 500. Every route is timed by {@link
+ * RouteMetrics}.
+ */
+@Component
+@Lazy
+public class WeatherApi {
+
+  private static final Logger log = LoggerFactory.getLogger(WeatherApi.class);
+
+  private static final ExitCodeExceptionMapper MAPPER = new DefaultExitCodeExceptionMapper();
+
+  private final OpenMeteoClient openMeteoClient;
+  private final Gazetteer gazetteer;
+  private final WeatherPresenter presenter;
+  private final MeterRegistry registry;
+  private final RecentObservations recent;
+  private final int timeoutMs;
+
+  public WeatherApi(
+      OpenMeteoClient openMeteoClient,
+      Gazetteer gazetteer,
+      WeatherPresenter presenter,
+      MeterRegistry registry,
+      CliProperties props) {
+    this.openMeteoClient = openMeteoClient;
+    this.gazetteer = gazetteer;
+    this.presenter = presenter;
+    this.registry = registry;
+    this.recent =
+        new RecentObservations(props.getServer().getCacheEntries(), props.getCache().getTtl());
+    this.timeoutMs = props.getNetwork().getOverallTimeoutMs();
+  }
+
+  /**
+   * The API's routes, each timed under its own {@code route} tag.
+   *
+   * <p>Loads the gazetteer first, so {@code city} lookups never read it from disk on an event loop.
+   */
+  public RouterFunction<ServerResponse> routes() {
+    int cities = gazetteer.size();
+    log.debug("gazetteer loaded: {} cities", cities);
+    return route(GET("/weather"), this::weather)
+        .filter(RouteMetrics.timed("weather"))
+        .and(route(GET("/metrics"), this::metrics).filter(RouteMetrics.timed("metrics")));
+  }
+
+  // Resolve the place from the query, then serve it from memory or fetch it
+  private Mono<WeatherResponse> lookup(ServerRequest request) {
+    return Mono.fromCallable(() -> place(request))
+        .flatMap(
+            place ->
+                recent
+                    .get(
+                        openMeteoClient.cellOf(place.lat(), place.lon()),
+                        () -> openMeteoClient.fetchCurrentAsync(place.lat(), place.lon()))
+                    .map(obs -> WeatherResponse.of(place, obs, presenter)))
+        .timeout(
+            Duration.ofMillis(timeoutMs),
+            Mono.error(
+                () ->
+                    new CodedException(
+                        ExitCodes.NETWORK, "weather timed out after " + timeoutMs + " ms")));
+  }
+
+  private Mono<ServerResponse> weather(ServerRequest request) {
+    return Correlation.run(
+        "serve",
+        () ->
+            lookup(request)
+                .flatMap(
+                    body ->
+                        ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(body))
+                .onErrorResume(WeatherApi::error)
+                .contextWrite(Correlation.context()));
+  }
+
+  private Mono<ServerResponse> metrics(ServerRequest request) {
+    return ServerResponse.ok()
+        .contentType(MediaType.TEXT_PLAIN)
+        .bodyValue(MetricsSnapshot.render(registry));
+  }
+
+  private static Mono<ServerResponse> error(Throwable e) {
+    int code = MAPPER.map(e);
+    HttpStatus status;
+    if (code == ExitCodes.VALIDATION.code()) {
+      status = HttpStatus.BAD_REQUEST;
+    } else if (code == ExitCodes.NETWORK.code()) {
+      status = HttpStatus.BAD_GATEWAY;
+    } else {
+      status = HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+    if (status.is5xxServerError()) {
+      log.warn("weather request failed: {}", e.toString());
+    }
+    return ServerResponse.status(status)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(new ErrorResponse(MAPPER.message(e), code));
+  }
+
+  /** A requested place with its display label. */
+  private record Place(double lat, double lon, String label) {}
+
+  private Place place(ServerRequest request) {
+    Optional<String> city = request.queryParam("city");
+    Optional<String> lat = request.queryParam("lat");
+    Optional<String> lon = request.queryParam("lon");
+    if (city.isPresent()) {
+      if (lat.isPresent() || lon.isPresent()) {
+        throw new IllegalArgumentException("use either city or lat/lon, not both");
+      }
+      Gazetteer.City match =
+          gazetteer
+              .find(city.get())
+              .orElseThrow(
+                  () -> new CodedException(ExitCodes.VALIDATION, "unknown city: " + city.get()));
+      return new Place(match.lat(), match.lon(), match.label());
+    }
+    if (lat.isEmpty() || lon.isEmpty()) {
+      throw new IllegalArgumentException("give city, or both lat and lon");
+    }
+    Coordinates point = new Coordinates(number("lat", lat.get()), number("lon", lon.get()));
+    return new Place(point.lat(), point.lon(), point.label());
+  }
+
+  private static double number(String name, String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(name + " is not a number: " + value, e);
+    }
+  }
+
+  /**
+   * Body of a successful {@code /weather} response.
+   *
+   * @param location label of the place, e.g. {@code Madrid, ES} or {@code 40.4168,-3.7038}
+   * @param lat latitude the weather was fetched for
+   * @param lon longitude the weather was fetched for
+   * @param temperatureCelsius current temperature
+   * @param windSpeed current wind speed in m/s
+   * @param weatherCode WMO weather code
+   * @param summary the one-line text the CLI prints for this observation
+   */
+  public record WeatherResponse(
+      String location,
+      double lat,
+      double lon,
+      double temperatureCelsius,
+      double windSpeed,
+      int weatherCode,
+      String summary) {
+
+    static WeatherResponse of(Place place, WeatherObservation obs, WeatherPresenter presenter) {
+      return new WeatherResponse(
+          place.label(),
+          place.lat(),
+          place.lon(),
+          obs.getTemperatureCelsius(),
+          obs.getWindSpeed(),
+          obs.getWeatherCode(),
+          presenter.presentLine(place.label(), obs));
+    }
+  }
+
+  /**
+   * Body of an error response.
+   *
+   * @param error what went wrong
+   * @param exitCode the exit code the CLI would have exited with
+   */
+  public record ErrorResponse(String error, int exitCode) {}
+}
@@ -0,0 +1,32 @@
+package com.aiddbot.archetype.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class OneShotTest {
+
+  @Test
+  void weather_takesFastPath() {
+    assertThat(OneShot.parse(new String[] {"weather", "--lat", "40.4", "--lon", "-3.7"}))
+        .isPresent();
+    assertThat(OneShot.parse(new String[] {"weather"})).isPresent();
+  }
+
+  @Test
+  void otherCommandLines_useFullShell() {
+    assertThat(OneShot.parse(new String[0])).isEmpty();
+    assertThat(OneShot.parse(new String[] {"version"})).isEmpty();
+    assertThat(OneShot.parse(new String[] {"weather", "--watch"})).isEmpty();
+  }
+
+  @Test
+  void disabledByProperty_usesFullShell() {
+    System.setProperty("cli.fast-path", "false");
+    try {
+      assertThat(OneShot.parse(new String[] {"weather", "--lat", "1", "--lon", "2"})).isEmpty();
+    } finally {
+      System.clearProperty("cli.fast-path");
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.aiddbot.archetype.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Starts the CLI in a separate JVM and checks which classes a command loads.
+ *
+ * <p>The HTTP stack is lazy, so {@code version} and {@code help} must finish without loading a
+ * single Netty class, and a one-shot {@code weather} call takes the {@link OneShot} fast path
+ * without loading JLine. A regression here (an eager bean, a new auto-configuration) adds its
+ * class loading and start-up to every invocation.
+ */
+class StartupClassLoadingTest {
+
+  @Test
+  void version_neverLoadsNetty(@TempDir Path dir) throws Exception {
+    assertThat(run(dir, List.of(), "version").loaded())
+        .filteredOn(line -> line.contains(" io.netty."))
+        .as("Netty classes loaded by 'version'")
+        .isEmpty();
+  }
+
+  @Test
+  void help_neverLoadsNetty(@TempDir Path dir) throws Exception {
+    assertThat(run(dir, List.of(), "help").loaded())
+        .filteredOn(line -> line.contains(" io.netty."))
+        .as("Netty classes loaded by 'help'")
+        .isEmpty();
+  }
+
+  @Test
+  void oneShotWeather_neverLoadsJLine(@TempDir Path dir) throws Exception {
+    byte[] body =
+        "{\"current_weather\":{\"temperature\":21.5,\"windspeed\":3.0,\"weathercode\":0}}"
+            .getBytes(StandardCharsets.UTF_8);
+    HttpServer stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    stub.createContext(
+        "/v1/forecast",
+        exchange -> {
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    stub.start();
+    try {
+      String url = "http://127.0.0.1:" + stub.getAddress().getPort() + "/v1/forecast";
+      Run run =
+          run(
+              dir,
+              List.of("-Dcli.endpoints.open-meteo-base-url=" + url),
+              "weather",
+              "--lat",
+              "40.4168",
+              "--lon",
+              "-3.7038");
+
+      assertThat(run.output()).contains("21.5");
+      assertThat(run.loaded())
+          .filteredOn(line -> line.contains(" org.jline."))
+          .as("JLine classes loaded by one-shot 'weather'")
+          .isEmpty();
+    } finally {
+      stub.stop(0);
+    }
+  }
+
+  private record Run(String output, List<String> loaded) {}
+
+  // Runs one command in a fresh JVM on the test class path and returns its output and class log
+  private static Run run(Path dir, List<String> properties, String... args)
+      throws IOException, InterruptedException {
+    Path classLog = dir.resolve("classes.log");
+    Path output = dir.resolve("output.log");
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.add("-Xlog:class+load=info:file=" + classLog);
+    command.add("-Dspring.main.banner-mode=off");
+    command.add("-Dcli.cache.directory=" + dir);
+    command.addAll(properties);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(ArchetypeJavaCliApplication.class.getName());
+    command.addAll(List.of(args));
+    Process process =
+        new ProcessBuilder(command)
+            .directory(dir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(output.toFile())
+            .start();
+
+    if (!process.waitFor(60, TimeUnit.SECONDS)) {
+      process.destroyForcibly();
+      throw new AssertionError("'" + args[0] + "' did not finish within 60 s");
+    }
+    String text = Files.readString(output);
+    assertThat(process.exitValue()).as(text).isZero();
+    List<String> loaded = Files.readAllLines(classLog);
+    assertThat(loaded).as("class-load log").isNotEmpty();
+    return new Run(text, loaded);
+  }
+}
@@ -0,0 +1,88 @@
+package com.aiddbot.archetype.cli.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoResponse;
+
+class FileIpGeoCacheTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+  private static final Duration TTL = Duration.ofHours(1);
+  private static final String REMOTE = "remote";
+
+  @TempDir Path dir;
+
+  private final AtomicReference<String> network = new AtomicReference<>("eth0=10.0.0.5");
+
+  private FileIpGeoCache cacheAt(Instant at) {
+    return new FileIpGeoCache(
+        dir.resolve("ip-geo.json"), TTL, Clock.fixed(at, ZoneOffset.UTC), network::get);
+  }
+
+  private static IpGeoResponse madrid() {
+    IpGeoResponse r = new IpGeoResponse();
+    r.setStatus("success");
+    r.setLat(40.4168);
+    r.setLon(-3.7038);
+    r.setCity("Madrid");
+    r.setCountry("Spain");
+    return r;
+  }
+
+  @Test
+  void get_missingFile_isMiss() {
+    assertThat(cacheAt(NOW).get(REMOTE)).isEmpty();
+  }
+
+  @Test
+  void get_returnsStoredResponse_withinTtlOnSameNetwork() {
+    cacheAt(NOW).put(REMOTE, madrid());
+
+    IpGeoResponse cached = cacheAt(NOW.plus(TTL)).get(REMOTE).orElseThrow();
+    assertThat(cached.getCity()).isEqualTo("Madrid");
+    assertThat(cached.getLat()).isEqualTo(40.4168);
+    assertThat(cached.getLon()).isEqualTo(-3.7038);
+  }
+
+  @Test
+  void get_expiredEntry_isMiss() {
+    cacheAt(NOW).put(REMOTE, madrid());
+
+    assertThat(cacheAt(NOW.plus(TTL).plusSeconds(1)).get(REMOTE)).isEmpty();
+  }
+
+  @Test
+  void get_networkChange_isMiss() {
+    cacheAt(NOW).put(REMOTE, madrid());
+    network.set("wlan0=192.168.1.20");
+
+    assertThat(cacheAt(NOW).get(REMOTE)).isEmpty();
+  }
+
+  @Test
+  void get_otherSource_isMiss() {
+    cacheAt(NOW).put(REMOTE, madrid());
+
+    assertThat(cacheAt(NOW).get("offline")).isEmpty();
+    assertThat(cacheAt(NOW).get("offline:203.0.113.7")).isEmpty();
+    assertThat(cacheAt(NOW).get(REMOTE)).isPresent();
+  }
+
+  @Test
+  void get_corruptFile_isMiss() throws Exception {
+    Files.writeString(dir.resolve("ip-geo.json"), "{not json");
+
+    assertThat(cacheAt(NOW).get(REMOTE)).isEmpty();
+  }
+}
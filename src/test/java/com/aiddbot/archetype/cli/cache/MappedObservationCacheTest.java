@@ -0,0 +1,137 @@
+package com.aiddbot.archetype.cli.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+
+class MappedObservationCacheTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+  private static final Duration TTL = Duration.ofMinutes(5);
+  private static final double GRID = 0.01;
+
+  @TempDir Path dir;
+
+  private MappedObservationCache open(Instant at, int slots) throws Exception {
+    return open(MappedObservationCache.fileFor(dir, slots, GRID), at, slots, GRID);
+  }
+
+  private static MappedObservationCache open(Path file, Instant at, int slots, double grid)
+      throws Exception {
+    return new MappedObservationCache(file, slots, TTL, grid, Clock.fixed(at, ZoneOffset.UTC));
+  }
+
+  @Test
+  void get_returnsStoredObservation_withinTtl() throws Exception {
+    try (MappedObservationCache cache = open(NOW, 128)) {
+      cache.put(40.4168, -3.7038, new WeatherObservation(21.5, 3.2, 2));
+
+      WeatherObservation obs = cache.get(40.4168, -3.7038).orElseThrow();
+      assertThat(obs.getTemperatureCelsius()).isEqualTo(21.5);
+      assertThat(obs.getWindSpeed()).isEqualTo(3.2);
+      assertThat(obs.getWeatherCode()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void get_sharesEntryWithinGridCell_only() throws Exception {
+    try (MappedObservationCache cache = open(NOW, 128)) {
+      cache.put(40.4168, -3.7038, new WeatherObservation(21.5, 3.2, 2));
+
+      assertThat(cache.get(40.4171, -3.7041)).isPresent();
+      assertThat(cache.get(40.4468, -3.7038)).isEmpty();
+    }
+  }
+
+  @Test
+  void entriesAreVisibleToOtherInstances_untilExpired() throws Exception {
+    try (MappedObservationCache writer = open(NOW, 128)) {
+      writer.put(51.5, -0.12, new WeatherObservation(9.0, 5.0, 61));
+    }
+
+    try (MappedObservationCache fresh = open(NOW.plus(TTL), 128)) {
+      assertThat(fresh.get(51.5, -0.12)).isPresent();
+    }
+    try (MappedObservationCache stale = open(NOW.plus(TTL).plusSeconds(1), 128)) {
+      assertThat(stale.get(51.5, -0.12)).isEmpty();
+    }
+  }
+
+  @Test
+  void layoutChange_usesItsOwnFile() throws Exception {
+    try (MappedObservationCache cache = open(NOW, 128)) {
+      cache.put(51.5, -0.12, new WeatherObservation(9.0, 5.0, 61));
+
+      try (MappedObservationCache resized = open(NOW, 256)) {
+        assertThat(resized.get(51.5, -0.12)).isEmpty();
+      }
+      assertThat(cache.get(51.5, -0.12)).isPresent();
+    }
+    assertThat(MappedObservationCache.fileFor(dir, 128, GRID))
+        .isNotEqualTo(MappedObservationCache.fileFor(dir, 256, GRID));
+  }
+
+  @Test
+  void gridChange_usesItsOwnFile() throws Exception {
+    Path fine = MappedObservationCache.fileFor(dir, 128, GRID);
+    Path coarse = MappedObservationCache.fileFor(dir, 128, 1.0);
+    assertThat(fine.getFileName()).hasToString("observations-v2-128-0.01.bin");
+    assertThat(coarse.getFileName()).hasToString("observations-v2-128-1.bin");
+
+    // Cell 40 of a 1° grid is not cell 40 of a 0.01° grid
+    try (MappedObservationCache coarseCache = open(coarse, NOW, 128, 1.0);
+        MappedObservationCache fineCache = open(fine, NOW, 128, GRID)) {
+      coarseCache.put(40.0, 40.0, new WeatherObservation(9.0, 5.0, 61));
+
+      assertThat(fineCache.get(0.4, 0.4)).isEmpty();
+    }
+  }
+
+  @Test
+  void existingFileWithOtherLayout_isRejectedAndLeftUntouched() throws Exception {
+    Path file = dir.resolve("shared.bin");
+    try (MappedObservationCache cache = open(file, NOW, 128, GRID)) {
+      cache.put(51.5, -0.12, new WeatherObservation(9.0, 5.0, 61));
+
+      long size = Files.size(file);
+      assertThatThrownBy(() -> open(file, NOW, 256, GRID))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("different layout");
+      assertThatThrownBy(() -> open(file, NOW, 128, 1.0))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("different layout");
+      assertThat(Files.size(file)).isEqualTo(size);
+      assertThat(cache.get(51.5, -0.12)).isPresent();
+    }
+  }
+
+  @Test
+  void fileWithoutHeader_isInitialized() throws Exception {
+    Path file = MappedObservationCache.fileFor(dir, 16, GRID);
+    Files.write(file, new byte[8]);
+
+    try (MappedObservationCache cache = open(NOW, 16)) {
+      cache.put(0.0, 0.0, new WeatherObservation(1.0, 2.0, 3));
+      assertThat(cache.get(0.0, 0.0)).isPresent();
+    }
+  }
+
+  @Test
+  void emptyFile_isMiss() throws Exception {
+    try (MappedObservationCache cache = open(NOW, 16)) {
+      assertThat(cache.get(0.0, 0.0)).isEmpty();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.aiddbot.archetype.cli.commands;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CommandRequestTest {
+
+  @Test
+  void weatherWithCoordinates() {
+    assertThat(CommandRequest.parse(List.of("weather", "--lat", "40.4", "--lon", "-3.7")))
+        .contains(new CommandRequest("weather", 40.4, -3.7, null, false));
+  }
+
+  @Test
+  void weatherWithCityAndProfile() {
+    assertThat(CommandRequest.parse(List.of("weather", "--profile", "--city", "Valencia, Spain")))
+        .contains(new CommandRequest("weather", null, null, "Valencia, Spain", true));
+  }
+
+  @Test
+  void bareWeatherAndVersion() {
+    assertThat(CommandRequest.parse(List.of("weather")))
+        .contains(new CommandRequest("weather", null, null, null, false));
+    assertThat(CommandRequest.parse(List.of("version")))
+        .contains(new CommandRequest("version", null, null, null, false));
+  }
+
+  @Test
+  void otherCommandLines_needTheShell() {
+    assertThat(CommandRequest.parse(List.of())).isEmpty();
+    assertThat(CommandRequest.parse(List.of("version", "--verbose"))).isEmpty();
+    assertThat(CommandRequest.parse(List.of("weather-batch", "--file", "x"))).isEmpty();
+    assertThat(CommandRequest.parse(List.of("weather", "--watch"))).isEmpty();
+    assertThat(CommandRequest.parse(List.of("weather", "--lat", "40", "--interval", "5")))
+        .isEmpty();
+    assertThat(CommandRequest.parse(List.of("weather", "--lat"))).isEmpty();
+    assertThat(CommandRequest.parse(List.of("weather", "--lat", "north"))).isEmpty();
+  }
+
+  @Test
+  void split_honoursQuotes() {
+    assertThat(CommandRequest.split("  weather   --city \"Valencia, Spain\" --profile "))
+        .containsExactly("weather", "--city", "Valencia, Spain", "--profile");
+    assertThat(CommandRequest.split("weather --city 'St. John'\"'s\""))
+        .containsExactly("weather", "--city", "St. John's");
+    assertThat(CommandRequest.split("weather --city ''")).containsExactly("weather", "--city", "");
+    assertThat(CommandRequest.split("   ")).isEmpty();
+  }
+
+  @Test
+  void split_rejectsUnclosedQuote() {
+    assertThatThrownBy(() -> CommandRequest.split("weather --city \"Madrid"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("unclosed quote");
+  }
+}
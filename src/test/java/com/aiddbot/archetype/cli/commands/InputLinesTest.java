@@ -0,0 +1,32 @@
+package com.aiddbot.archetype.cli.commands;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InputLinesTest {
+
+  @Test
+  void open_skipsBlanksAndComments(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("coords.txt");
+    Files.writeString(file, "# header\n\n40.4168,-3.7038\n  \n51.5,-0.12\n");
+
+    try (Stream<String> lines = InputLines.open(file.toString())) {
+      assertThat(lines.toList()).isEqualTo(List.of("40.4168,-3.7038", "51.5,-0.12"));
+    }
+  }
+
+  @Test
+  void open_missingFile_throwsUncheckedIo(@TempDir Path dir) {
+    assertThatThrownBy(() -> InputLines.open(dir.resolve("missing.txt").toString()))
+        .isInstanceOf(UncheckedIOException.class);
+  }
+}
@@ -0,0 +1,182 @@
+package com.aiddbot.archetype.cli.commands;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.location.Gazetteer;
+import com.aiddbot.archetype.cli.metrics.StartupTimes;
+import com.aiddbot.archetype.cli.presenter.WeatherPresenter;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Mono;
+
+class PipeCommandsTest {
+
+  @TempDir Path dir;
+
+  private final CommandDispatcher dispatcher = mock(CommandDispatcher.class);
+  private final PipeCommands pipe = new PipeCommands(dispatcher, new CliProperties());
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+  private PrintStream originalOut;
+  private PrintStream originalErr;
+
+  @BeforeEach
+  void capture() {
+    originalOut = System.out;
+    originalErr = System.err;
+    System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+    System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+  }
+
+  @AfterEach
+  void restore() {
+    System.setOut(originalOut);
+    System.setErr(originalErr);
+  }
+
+  private String input(String... lines) throws IOException {
+    Path file = dir.resolve("commands.txt");
+    Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+    return file.toString();
+  }
+
+  @Test
+  void resultsFollowInputOrder_evenWhenEarlierCommandsFinishLast() throws IOException {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    when(dispatcher.call(any()))
+        .thenAnswer(
+            call -> {
+              CommandRequest request = call.getArgument(0);
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              try {
+                // the first line is the slowest
+                Thread.sleep(request.lat() == null ? 10 : (long) (200 / request.lat()));
+              } finally {
+                running.decrementAndGet();
+              }
+              return request.lat() == null ? "v1\n" : "weather at " + request.lat() + "\n";
+            });
+
+    String result =
+        pipe.pipe(
+            input(
+                "weather --lat 1 --lon 0",
+                "# comment",
+                "weather --lat 2 --lon 0",
+                "version",
+                "weather --lat 4 --lon 0"),
+            4);
+
+    assertThat(out.toString(StandardCharsets.UTF_8))
+        .isEqualTo(
+            String.join(
+                System.lineSeparator(),
+                "#1 exit=0 weather --lat 1 --lon 0",
+                "weather at 1.0",
+                "#2 exit=0 weather --lat 2 --lon 0",
+                "weather at 2.0",
+                "#3 exit=0 version",
+                "v1",
+                "#4 exit=0 weather --lat 4 --lon 0",
+                "weather at 4.0",
+                ""));
+    assertThat(result).isEqualTo("pipe: 4 commands run");
+    assertThat(maxRunning.get()).isGreaterThan(1).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void failedLines_reportTheirExitCode_andTheRunFailsWithTheFirst() throws IOException {
+    when(dispatcher.call(any()))
+        .thenAnswer(
+            call -> {
+              CommandRequest request = call.getArgument(0);
+              if ("Nowhere".equals(request.city())) {
+                throw new CodedException(ExitCodes.NETWORK, "Open-Meteo down");
+              }
+              return "ok";
+            });
+
+    assertThatThrownBy(
+            () ->
+                pipe.pipe(
+                    input(
+                        "weather --city Nowhere",
+                        "version",
+                        "weather-batch --file x",
+                        "weather --city \"unclosed"),
+                    2))
+        .isInstanceOf(CodedException.class)
+        .hasMessage("pipe: 3 of 4 commands failed, first at #1")
+        .extracting(e -> ((CodedException) e).getExitCode())
+        .isEqualTo(ExitCodes.NETWORK);
+
+    assertThat(out.toString(StandardCharsets.UTF_8).lines())
+        .containsExactly(
+            "#1 exit=5 weather --city Nowhere",
+            "ERROR: Open-Meteo down",
+            "#2 exit=0 version",
+            "ok",
+            "#3 exit=2 weather-batch --file x",
+            "ERROR: only version and weather can be piped: weather-batch --file x",
+            "#4 exit=2 weather --city \"unclosed",
+            "ERROR: unclosed quote in: weather --city \"unclosed");
+  }
+
+  @Test
+  void weatherError_isPrintedOnce_inItsBlock() throws IOException {
+    OpenMeteoClient openMeteo = mock(OpenMeteoClient.class);
+    when(openMeteo.fetchCurrentAsync(anyDouble(), anyDouble()))
+        .thenReturn(Mono.error(new CodedException(ExitCodes.NETWORK, "Open-Meteo down")));
+    WeatherCommands weather =
+        new WeatherCommands(
+            mock(IpGeoClient.class),
+            openMeteo,
+            new WeatherPresenter(),
+            new CliProperties(),
+            new Gazetteer(),
+            new StartupTimes());
+    PipeCommands realPipe =
+        new PipeCommands(
+            new CommandDispatcher(new VersionCommands(new MockEnvironment()), weather),
+            new CliProperties());
+
+    assertThatThrownBy(() -> realPipe.pipe(input("weather --lat 1 --lon 2"), 1))
+        .isInstanceOf(CodedException.class);
+
+    assertThat(out.toString(StandardCharsets.UTF_8).lines())
+        .containsExactly("#1 exit=5 weather --lat 1 --lon 2", "ERROR: Open-Meteo down");
+    assertThat(err.toString(StandardCharsets.UTF_8)).doesNotContain("Open-Meteo down");
+  }
+
+  @Test
+  void concurrencyBelowOne_isRejected() {
+    assertThatThrownBy(() -> pipe.pipe("-", 0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("at least 1");
+  }
+}
@@ -0,0 +1,241 @@
+package com.aiddbot.archetype.cli.commands;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+import com.aiddbot.archetype.cli.location.Coordinates;
+import com.aiddbot.archetype.cli.location.Gazetteer;
+import com.aiddbot.archetype.cli.metrics.StartupTimes;
+import com.aiddbot.archetype.cli.presenter.WeatherPresenter;
+import com.aiddbot.archetype.cli.resilience.Hedger;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.DefaultExitCodeExceptionMapper;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class WeatherCommandsTest {
+
+  private static final WeatherObservation CLEAR = new WeatherObservation(20.0, 3.0, 0);
+
+  @TempDir Path dir;
+
+  private final OpenMeteoClient openMeteo = mock(OpenMeteoClient.class);
+  private final CliProperties props = new CliProperties();
+  private final WeatherCommands weather =
+      new WeatherCommands(
+          mock(IpGeoClient.class),
+          openMeteo,
+          new WeatherPresenter(),
+          props,
+          new Gazetteer(),
+          new StartupTimes());
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+  private PrintStream originalOut;
+  private PrintStream originalErr;
+
+  @BeforeEach
+  void capture() {
+    originalOut = System.out;
+    originalErr = System.err;
+    System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+    System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+    when(openMeteo.hedger()).thenReturn(Hedger.disabled("open-meteo"));
+    // One request per location, so each location can be stubbed on its own
+    props.getBatch().setLocationsPerRequest(1);
+  }
+
+  @AfterEach
+  void restore() {
+    System.setOut(originalOut);
+    System.setErr(originalErr);
+  }
+
+  private String input(String... lines) throws IOException {
+    Path file = dir.resolve("coords.txt");
+    Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+    return file.toString();
+  }
+
+  private void respond(Function<Coordinates, Flux<WeatherObservation>> perLocation) {
+    when(openMeteo.fetchCurrentManyAsync(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Coordinates> chunk = invocation.getArgument(0);
+              return Flux.concat(chunk.stream().map(perLocation).toList());
+            });
+  }
+
+  private List<String> outLines() {
+    return out.toString(StandardCharsets.UTF_8).lines().toList();
+  }
+
+  private List<String> errLines() {
+    return err.toString(StandardCharsets.UTF_8).lines().toList();
+  }
+
+  @Test
+  void weather_slowerThanOverallTimeout_failsWithNetworkExitCode() {
+    props.getNetwork().setOverallTimeoutMs(100);
+    when(openMeteo.fetchCurrentAsync(anyDouble(), anyDouble()))
+        .thenReturn(Mono.delay(Duration.ofSeconds(5)).thenReturn(CLEAR));
+
+    long started = System.nanoTime();
+    Throwable thrown = catchThrowable(() -> weather.weather(1.0, 2.0, null, false, 60, false));
+
+    assertThat(thrown)
+        .isInstanceOf(CodedException.class)
+        .hasMessage("weather timed out after 100 ms");
+    assertThat(new DefaultExitCodeExceptionMapper().map(thrown))
+        .isEqualTo(ExitCodes.NETWORK.code());
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+    assertThat(errLines()).containsExactly("ERROR: weather timed out after 100 ms");
+  }
+
+  @Test
+  void weather_cityTogetherWithCoordinates_isRejected() {
+    Throwable thrown = catchThrowable(() -> weather.weather(1.0, 2.0, "Madrid", false, 60, false));
+
+    assertThat(thrown)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("use either --city or --lat/--lon, not both");
+    assertThat(new DefaultExitCodeExceptionMapper().map(thrown))
+        .isEqualTo(ExitCodes.VALIDATION.code());
+    verifyNoInteractions(openMeteo);
+  }
+
+  @Test
+  void batch_keepsAtMostConcurrencyRequestsInFlight() throws IOException {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+    respond(
+        c ->
+            Mono.delay(Duration.ofMillis(20))
+                .doOnSubscribe(s -> peak.accumulateAndGet(running.incrementAndGet(), Math::max))
+                // before the result is emitted, so the next request cannot start first
+                .doOnTerminate(running::decrementAndGet)
+                .thenReturn(CLEAR)
+                .flux());
+    String file = input("1,1", "2,2", "3,3", "4,4", "5,5", "6,6", "7,7", "8,8", "9,9", "10,10");
+
+    String result = weather.weatherBatch(file, 3, false, 60, false);
+
+    assertThat(result).isEqualTo("weather-batch: 10 locations processed");
+    assertThat(outLines()).hasSize(10);
+    assertThat(peak.get()).isEqualTo(3);
+  }
+
+  @Test
+  void batch_printsEachResultAsSoonAsItsRequestCompletes() throws IOException {
+    respond(
+        c ->
+            c.lat() == 1
+                ? Mono.delay(Duration.ofMillis(200)).thenReturn(CLEAR).flux()
+                : Flux.just(CLEAR));
+
+    weather.weatherBatch(input("1,1", "2,2"), 2, false, 60, false);
+
+    assertThat(outLines())
+        .containsExactly(
+            "2.0000,2.0000: 20.0 C, wind 3.0 m/s, Clear sky",
+            "1.0000,1.0000: 20.0 C, wind 3.0 m/s, Clear sky");
+  }
+
+  @Test
+  void batch_reportsEachFailedLocation_andExitsWithTheFailureCode() throws IOException {
+    respond(
+        c ->
+            c.lat() == 2
+                ? Flux.error(new CodedException(ExitCodes.NETWORK, "Open-Meteo down"))
+                : Flux.just(CLEAR));
+
+    assertThatThrownBy(() -> weather.weatherBatch(input("1,1", "2,2", "3,3"), 1, false, 60, false))
+        .isInstanceOfSatisfying(
+            CodedException.class,
+            ce -> assertThat(ce.getExitCode()).isEqualTo(ExitCodes.NETWORK))
+        .hasMessage("weather-batch: 1 of 3 locations failed");
+
+    assertThat(outLines())
+        .containsExactly(
+            "1.0000,1.0000: 20.0 C, wind 3.0 m/s, Clear sky",
+            "3.0000,3.0000: 20.0 C, wind 3.0 m/s, Clear sky");
+    assertThat(errLines())
+        .containsExactly(
+            "2.0000,2.0000: ERROR: Open-Meteo down",
+            "ERROR: weather-batch: 1 of 3 locations failed");
+  }
+
+  @Test
+  void batch_invalidLine_isReportedAsValidationFailure() throws IOException {
+    respond(c -> Flux.just(CLEAR));
+
+    assertThatThrownBy(() -> weather.weatherBatch(input("1,1", "north"), 1, false, 60, false))
+        .isInstanceOfSatisfying(
+            CodedException.class,
+            ce -> assertThat(ce.getExitCode()).isEqualTo(ExitCodes.VALIDATION));
+
+    assertThat(outLines()).containsExactly("1.0000,1.0000: 20.0 C, wind 3.0 m/s, Clear sky");
+    assertThat(errLines().getFirst()).startsWith("north: ERROR: ");
+  }
+
+  @Test
+  void batch_requestOverOverallTimeout_failsOnlyItsLocations() throws IOException {
+    props.getNetwork().setOverallTimeoutMs(100);
+    respond(c -> c.lat() == 1 ? Flux.never() : Flux.just(CLEAR));
+
+    assertThatThrownBy(() -> weather.weatherBatch(input("1,1", "2,2"), 2, false, 60, false))
+        .isInstanceOfSatisfying(
+            CodedException.class,
+            ce -> assertThat(ce.getExitCode()).isEqualTo(ExitCodes.NETWORK))
+        .hasMessage("weather-batch: 1 of 2 locations failed");
+
+    assertThat(outLines()).containsExactly("2.0000,2.0000: 20.0 C, wind 3.0 m/s, Clear sky");
+    assertThat(errLines()).contains("1.0000,1.0000: ERROR: weather timed out after 100 ms");
+  }
+
+  @Test
+  void virtualThreadBatch_requestOverOverallTimeout_failsOnlyItsLocation() throws IOException {
+    props.getNetwork().setOverallTimeoutMs(100);
+    props.getBatch().setExecutor(CliProperties.Batch.Executor.VIRTUAL_THREADS);
+    when(openMeteo.fetchCurrentAsync(anyDouble(), anyDouble()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Double>getArgument(0) == 1 ? Mono.never() : Mono.just(CLEAR));
+
+    assertThatThrownBy(() -> weather.weatherBatch(input("1,1", "2,2"), 2, false, 60, false))
+        .isInstanceOfSatisfying(
+            CodedException.class,
+            ce -> assertThat(ce.getExitCode()).isEqualTo(ExitCodes.NETWORK));
+
+    assertThat(outLines()).containsExactly("2.0000,2.0000: 20.0 C, wind 3.0 m/s, Clear sky");
+    assertThat(errLines()).contains("1.0000,1.0000: ERROR: weather timed out after 100 ms");
+  }
+}
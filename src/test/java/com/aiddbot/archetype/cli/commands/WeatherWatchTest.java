@@ -0,0 +1,69 @@
+package com.aiddbot.archetype.cli.commands;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+import com.aiddbot.archetype.cli.location.Coordinates;
+import com.aiddbot.archetype.cli.presenter.WeatherPresenter;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+class WeatherWatchTest {
+
+  private final Scheduler scheduler = Schedulers.newSingle("weather-watch-test");
+
+  @AfterEach
+  void disposeScheduler() {
+    scheduler.dispose();
+  }
+
+  @Test
+  void printsFullLinesFirst_thenOnlyChanges_andSurvivesFailedTicks() {
+    OpenMeteoClient client = mock(OpenMeteoClient.class);
+    WeatherObservation clear = new WeatherObservation(20.0, 3.0, 0);
+    WeatherObservation warmer = new WeatherObservation(21.0, 3.0, 0);
+    WeatherObservation rain = new WeatherObservation(20.0, 3.0, 61);
+    when(client.refreshManyAsync(anyList()))
+        .thenReturn(Flux.just(clear, clear))
+        .thenReturn(Flux.just(clear, warmer))
+        .thenReturn(Flux.error(new CodedException(ExitCodes.NETWORK, "down")))
+        .thenReturn(Flux.just(rain, warmer));
+    List<CodedException> errors = new CopyOnWriteArrayList<>();
+
+    List<String> lines =
+        new WeatherWatch(client, new WeatherPresenter())
+            .updates(
+                List.of(
+                    new WeatherWatch.Target(new Coordinates(1, 1), "A"),
+                    new WeatherWatch.Target(new Coordinates(2, 2), "B")),
+                Duration.ofMillis(10),
+                scheduler,
+                errors::add)
+            .take(4)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+    assertThat(lines)
+        .containsExactly(
+            "A: 20.0 C, wind 3.0 m/s, Clear sky",
+            "B: 20.0 C, wind 3.0 m/s, Clear sky",
+            "B: 21.0 C",
+            "A: Drizzle / Rain");
+    assertThat(errors).extracting(CodedException::getMessage).containsExactly("down");
+  }
+}
@@ -2,6 +2,8 @@ package com.aiddbot.archetype.cli.config;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
@@ -30,10 +32,33 @@ class CliPropertiesTest {
           CliProperties props = context.getBean(CliProperties.class);
           assertThat(props.getNetwork().getConnectTimeoutMs()).isEqualTo(2000);
           assertThat(props.getNetwork().getReadTimeoutMs()).isEqualTo(2000);
+          assertThat(props.getNetwork().getOverallTimeoutMs()).isEqualTo(10000);
+          assertThat(props.getNetwork().isHedgeEnabled()).isFalse();
+          assertThat(props.getNetwork().getHedgePercentile()).isEqualTo(95.0);
+          assertThat(props.getNetwork().getRetryMaxAttempts()).isEqualTo(2);
+          assertThat(props.getNetwork().isBreakerEnabled()).isTrue();
+          assertThat(props.getNetwork().getBreakerOpenMs()).isEqualTo(30000);
+          assertThat(props.getNetwork().getPoolMaxConnections()).isEqualTo(64);
+          assertThat(props.getNetwork().getPoolMaxIdleMs()).isEqualTo(20000);
+          assertThat(props.getNetwork().isHttp2Enabled()).isTrue();
+          assertThat(props.getNetwork().isCompressionEnabled()).isTrue();
+          assertThat(props.getNetwork().isDnsCacheEnabled()).isTrue();
           assertThat(props.getEndpoints().getIpGeoBaseUrl().toString())
               .isEqualTo("http://ip-api.com/json");
           assertThat(props.getEndpoints().getOpenMeteoBaseUrl().toString())
               .isEqualTo("https://api.open-meteo.com/v1/forecast");
+          assertThat(props.getEndpoints().getIpGeoBatchUrl().toString())
+              .isEqualTo("http://ip-api.com/batch");
+          assertThat(props.getBatch().getMaxInFlight()).isEqualTo(16);
+          assertThat(props.getBatch().getLocationsPerRequest()).isEqualTo(100);
+          assertThat(props.getBatch().getExecutor()).isEqualTo(CliProperties.Batch.Executor.REACTIVE);
+          assertThat(props.getCache().isEnabled()).isTrue();
+          assertThat(props.getMetrics().getDumpFile()).isNull();
+          assertThat(props.getDaemon().getSocket().getFileName().toString()).endsWith(".sock");
+          assertThat(props.getDaemon().getRequestTimeoutMs()).isEqualTo(5000);
+          assertThat(props.getServer().getHost()).isEqualTo("127.0.0.1");
+          assertThat(props.getServer().getPort()).isEqualTo(8080);
+          assertThat(props.getCache().getTtl()).isEqualTo(Duration.ofMinutes(5));
         });
   }
 
@@ -44,7 +69,11 @@ class CliPropertiesTest {
             "cli.network.connect-timeout-ms=5000",
             "cli.network.read-timeout-ms=7000",
             "cli.endpoints.ip-geo-base-url=https://example.com/ip",
-            "cli.endpoints.open-meteo-base-url=https://example.com/weather")
+            "cli.endpoints.open-meteo-base-url=https://example.com/weather",
+            "cli.batch.executor=virtual-threads",
+            "cli.network.transport=epoll",
+            "cli.network.event-loop-threads=1",
+            "cli.network.buffers=small")
         .run(
             context -> {
               CliProperties props = context.getBean(CliProperties.class);
@@ -54,6 +83,13 @@ class CliPropertiesTest {
                   .isEqualTo("https://example.com/ip");
               assertThat(props.getEndpoints().getOpenMeteoBaseUrl().toString())
                   .isEqualTo("https://example.com/weather");
+              assertThat(props.getBatch().getExecutor())
+                  .isEqualTo(CliProperties.Batch.Executor.VIRTUAL_THREADS);
+              assertThat(props.getNetwork().getTransport())
+                  .isEqualTo(CliProperties.Network.Transport.EPOLL);
+              assertThat(props.getNetwork().getEventLoopThreads()).isEqualTo(1);
+              assertThat(props.getNetwork().getBuffers())
+                  .isEqualTo(CliProperties.Network.Buffers.SMALL);
             });
   }
 
@@ -66,6 +102,27 @@ class CliPropertiesTest {
           .run(context -> assertThat(context).hasFailed());
     }
 
+    @Test
+    void outOfRangeResilienceSettings_failValidation() {
+      contextRunner
+          .withPropertyValues("cli.network.retry-jitter=1.5", "cli.network.breaker-failure-rate=0")
+          .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void emptyConnectionPool_failsValidation() {
+      contextRunner
+          .withPropertyValues("cli.network.pool-max-connections=0")
+          .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    void nonPositiveBatchConcurrency_failValidation() {
+      contextRunner
+          .withPropertyValues("cli.batch.max-in-flight=0")
+          .run(context -> assertThat(context).hasFailed());
+    }
+
     @Test
     void invalidEndpointUri_failValidation() {
       contextRunner
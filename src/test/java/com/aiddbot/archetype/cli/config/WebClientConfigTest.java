@@ -0,0 +1,92 @@
+package com.aiddbot.archetype.cli.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientConfig;
+
+class WebClientConfigTest {
+
+  private final CliProperties props = new CliProperties();
+  private WebClientConfig.UpstreamResources upstream;
+
+  @AfterEach
+  void dispose() {
+    if (upstream != null) {
+      upstream.dispose();
+    }
+  }
+
+  private HttpClientConfig build() {
+    upstream = new WebClientConfig().upstreamResources(props);
+    HttpClient client = WebClientConfig.httpClient(props.getNetwork(), upstream);
+    return client.configuration();
+  }
+
+  @Test
+  void pool_usesConfiguredMaxConnections() {
+    props.getNetwork().setPoolMaxConnections(7);
+
+    build();
+
+    assertThat(upstream.connections().name()).isEqualTo(WebClientConfig.POOL_NAME);
+    assertThat(upstream.connections().maxConnections()).isEqualTo(7);
+  }
+
+  @Test
+  void http2Enabled_offersH2AndHttp11() {
+    props.getNetwork().setHttp2Enabled(true);
+
+    assertThat(build().protocols()).containsExactlyInAnyOrder(HttpProtocol.H2, HttpProtocol.HTTP11);
+  }
+
+  @Test
+  void http2Disabled_staysOnHttp11() {
+    props.getNetwork().setHttp2Enabled(false);
+
+    assertThat(build().protocols()).containsExactly(HttpProtocol.HTTP11);
+  }
+
+  @Test
+  void client_runsOnTheSharedLoopsWithConfiguredTimeouts() throws Exception {
+    props.getNetwork().setTransport(CliProperties.Network.Transport.NIO);
+    props.getNetwork().setEventLoopThreads(2);
+    props.getNetwork().setConnectTimeoutMs(1234);
+    props.getNetwork().setReadTimeoutMs(4321);
+
+    HttpClientConfig config = build();
+
+    assertThat(config.loopResources()).isSameAs(upstream.loops());
+    assertThat(config.isPreferNative()).isFalse();
+    assertThat(config.options().get(ChannelOption.CONNECT_TIMEOUT_MILLIS)).isEqualTo(1234);
+    assertThat(config.responseTimeout()).isEqualTo(Duration.ofMillis(4321));
+
+    EventLoopGroup group = upstream.loops().onClient(false);
+    List<String> names = new ArrayList<>();
+    for (EventExecutor executor : group) {
+      names.add(executor.submit(() -> Thread.currentThread().getName()).get());
+    }
+    assertThat(names).hasSize(2).allMatch(name -> name.startsWith(WebClientConfig.LOOP_PREFIX));
+  }
+
+  @Test
+  void smallBuffers_installTheirOwnAllocator() {
+    props.getNetwork().setBuffers(CliProperties.Network.Buffers.SMALL);
+
+    assertThat(build().options().get(ChannelOption.ALLOCATOR))
+        .isInstanceOf(PooledByteBufAllocator.class)
+        .isNotSameAs(PooledByteBufAllocator.DEFAULT);
+  }
+}
@@ -0,0 +1,219 @@
+package com.aiddbot.archetype.cli.daemon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.SocketTimeoutException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+class DaemonServerTest {
+
+  private static final Duration TIMEOUT = Duration.ofMillis(500);
+
+  @TempDir Path dir;
+
+  private DaemonServer server;
+  private Thread serving;
+
+  @AfterEach
+  void stop() throws InterruptedException {
+    if (server != null) {
+      server.close();
+      serving.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  @Test
+  void streamsOutputAndReturnsExitCode() throws Exception {
+    Path socket =
+        start(
+            (argv, out, err) -> {
+              out.println("out: " + String.join(" ", argv));
+              err.println("err: failed");
+              return ExitCodes.NETWORK.code();
+            });
+
+    Captured first = call(socket, "weather", "--city", "Valencia, Spain");
+    Captured second = call(socket, "version");
+
+    assertThat(first.code()).isEqualTo(5);
+    assertThat(first.out()).isEqualTo("out: weather --city Valencia, Spain\n");
+    assertThat(first.err()).isEqualTo("err: failed\n");
+    assertThat(second.out()).isEqualTo("out: version\n");
+  }
+
+  @Test
+  void handlerException_isMappedLikeTheCli() throws Exception {
+    Path socket =
+        start(
+            (argv, out, err) -> {
+              throw new CodedException(ExitCodes.VALIDATION, "bad input");
+            });
+
+    Captured result = call(socket, "weather");
+
+    assertThat(result.code()).isEqualTo(ExitCodes.VALIDATION.code());
+    assertThat(result.err()).isEqualTo("ERROR: bad input\n");
+  }
+
+  @Test
+  void commandsRunConcurrently_eachWithItsOwnOutput() throws Exception {
+    CountDownLatch bothRunning = new CountDownLatch(2);
+    Path socket =
+        start(
+            (argv, out, err) -> {
+              bothRunning.countDown();
+              try {
+                // Only returns if the other command is running at the same time
+                if (!bothRunning.await(5, TimeUnit.SECONDS)) {
+                  return ExitCodes.RUNTIME.code();
+                }
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ExitCodes.RUNTIME.code();
+              }
+              out.println(argv.getLast());
+              return 0;
+            });
+
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<Captured> first = clients.submit(() -> call(socket, "weather", "--city", "Madrid"));
+      Future<Captured> second = clients.submit(() -> call(socket, "weather", "--city", "Lisbon"));
+
+      assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(new Captured(0, "Madrid\n", ""));
+      assertThat(second.get(10, TimeUnit.SECONDS)).isEqualTo(new Captured(0, "Lisbon\n", ""));
+    }
+  }
+
+  @Test
+  void clientGivesUp_whenDaemonStaysSilent() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Path socket =
+        start(
+            (argv, out, err) -> {
+              try {
+                release.await(5, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return 0;
+            });
+
+    try {
+      assertThatThrownBy(
+              () ->
+                  DaemonClient.run(
+                      socket,
+                      List.of("version"),
+                      Duration.ofMillis(200),
+                      new PrintStream(new ByteArrayOutputStream()),
+                      new PrintStream(new ByteArrayOutputStream())))
+          .isInstanceOf(SocketTimeoutException.class)
+          .hasMessage("daemon sent nothing for 200 ms");
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void replacesStaleSocket_andRemovesItOnClose() throws Exception {
+    Path socket = dir.resolve("cli.sock");
+    Files.createFile(socket);
+
+    start((argv, out, err) -> 0);
+    assertThat(call(socket, "version").code()).isZero();
+
+    server.close();
+    serving.join(TimeUnit.SECONDS.toMillis(5));
+    assertThat(socket).doesNotExist();
+  }
+
+  @Test
+  void silentClient_isDroppedWithoutBlockingOthers() throws Exception {
+    Path socket = start((argv, out, err) -> 0);
+
+    try (SocketChannel silent = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+      long started = System.nanoTime();
+      assertThat(call(socket, "version").code()).isZero();
+      assertThat(System.nanoTime() - started).isLessThan(TIMEOUT.toNanos());
+
+      // Closed by the daemon once the request timeout passes
+      assertThat(silent.read(ByteBuffer.allocate(1))).isEqualTo(-1);
+      assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TIMEOUT.toNanos());
+    }
+  }
+
+  @Test
+  void refusesSocketOfRunningDaemon() throws Exception {
+    Path socket = start((argv, out, err) -> 0);
+
+    assertThatThrownBy(() -> new DaemonServer(socket, TIMEOUT, (argv, out, err) -> 0).serve())
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("already listening");
+  }
+
+  private Path start(DaemonServer.Handler handler) throws InterruptedException {
+    Path socket = dir.resolve("cli.sock");
+    server = new DaemonServer(socket, TIMEOUT, handler);
+    serving =
+        Thread.ofPlatform()
+            .start(
+                () -> {
+                  try {
+                    server.serve();
+                  } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                  }
+                });
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!isConnectable(socket) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    return socket;
+  }
+
+  private static boolean isConnectable(Path socket) {
+    try (SocketChannel probe = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private record Captured(int code, String out, String err) {}
+
+  private static Captured call(Path socket, String... argv) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    int code =
+        DaemonClient.run(
+            socket,
+            List.of(argv),
+            new PrintStream(out, true, StandardCharsets.UTF_8),
+            new PrintStream(err, true, StandardCharsets.UTF_8));
+    return new Captured(
+        code, out.toString(StandardCharsets.UTF_8), err.toString(StandardCharsets.UTF_8));
+  }
+}
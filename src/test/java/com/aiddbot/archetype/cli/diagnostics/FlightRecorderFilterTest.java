@@ -0,0 +1,86 @@
+package com.aiddbot.archetype.cli.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import reactor.core.publisher.Mono;
+
+class FlightRecorderFilterTest {
+
+  @TempDir Path tmp;
+
+  @Test
+  void recordsOneEventPerExchange_withStatusBytesAndCoordinates() throws Exception {
+    ExchangeFunction stub =
+        request -> Mono.just(ClientResponse.create(HttpStatus.OK).body("{\"ok\":true}").build());
+    ClientRequest request =
+        ClientRequest.create(
+                HttpMethod.GET, URI.create("https://api.example.com/v1/forecast?latitude=1"))
+            .attribute(UpstreamCallEvent.UPSTREAM, "open-meteo")
+            .attribute(UpstreamCallEvent.COORDINATES, "40.4,-3.7")
+            .build();
+
+    List<RecordedEvent> events =
+        record(
+            UpstreamCallEvent.NAME,
+            () ->
+                new FlightRecorderFilter()
+                    .filter(request, stub)
+                    .flatMap(r -> r.bodyToMono(String.class))
+                    .block());
+
+    assertThat(events).hasSize(1);
+    RecordedEvent e = events.get(0);
+    assertThat(e.getString("upstream")).isEqualTo("open-meteo");
+    assertThat(e.getString("endpoint")).isEqualTo("https://api.example.com/v1/forecast");
+    assertThat(e.getString("coordinates")).isEqualTo("40.4,-3.7");
+    assertThat(e.getInt("status")).isEqualTo(200);
+    assertThat(e.getLong("bytes")).isEqualTo(11);
+    assertThat(e.getString("outcome")).isEqualTo("ok");
+    assertThat(EventLines.format(e))
+        .contains(UpstreamCallEvent.NAME)
+        .contains("status=200")
+        .doesNotContain("eventThread");
+  }
+
+  @Test
+  void commandEventCarriesExitCode() throws Exception {
+    List<RecordedEvent> events =
+        record(CommandEvent.NAME, () -> CommandEvent.start("weather").finish(ExitCodes.NETWORK));
+
+    assertThat(events).hasSize(1);
+    assertThat(events.get(0).getString("command")).isEqualTo("weather");
+    assertThat(events.get(0).getString("exit")).isEqualTo("NETWORK");
+    assertThat(events.get(0).getInt("exitCode")).isEqualTo(5);
+  }
+
+  private List<RecordedEvent> record(String eventName, Runnable body) throws Exception {
+    Path file = tmp.resolve("test.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(eventName);
+      recording.start();
+      body.run();
+      recording.stop();
+      recording.dump(file);
+    }
+    return RecordingFile.readAllEvents(file).stream()
+        .filter(e -> e.getEventType().getName().equals(eventName))
+        .toList();
+  }
+}
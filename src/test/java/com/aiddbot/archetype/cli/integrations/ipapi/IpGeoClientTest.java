@@ -0,0 +1,99 @@
+package com.aiddbot.archetype.cli.integrations.ipapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiddbot.archetype.cli.cache.IpGeoCache;
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+/** Exercises the ip-api batch flow against a local stub server. */
+class IpGeoClientTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+  private HttpServer server;
+  private IpGeoClient client;
+
+  @BeforeEach
+  void startStub() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/batch",
+        exchange -> {
+          List<String> ips =
+              mapper.readValue(exchange.getRequestBody(), new TypeReference<List<String>>() {});
+          batchSizes.add(ips.size());
+          List<Map<String, Object>> rows =
+              ips.stream()
+                  .map(
+                      ip ->
+                          ip.startsWith("10.")
+                              ? Map.<String, Object>of(
+                                  "status", "fail", "message", "private range", "query", ip)
+                              : Map.<String, Object>of(
+                                  "status", "success",
+                                  "query", ip,
+                                  "lat", 40.4,
+                                  "lon", -3.7,
+                                  "city", "Madrid",
+                                  "country", "Spain"))
+                  .toList();
+          byte[] body = mapper.writeValueAsBytes(rows);
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    server.start();
+
+    CliProperties props = new CliProperties();
+    URI batchUrl = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/batch");
+    props.getEndpoints().setIpGeoBatchUrl(batchUrl);
+    client = new IpGeoClient(WebClient.create(), props, IpGeoCache.NOOP);
+  }
+
+  @AfterEach
+  void stopStub() {
+    server.stop(0);
+  }
+
+  @Test
+  void lookupMany_postsAtMostOneHundredAddressesPerRequest() {
+    List<String> ips = IntStream.range(0, 250).mapToObj(i -> "81.0.0." + i).toList();
+
+    List<IpGeoResponse> rows = client.lookupManyAsync(ips).collectList().block();
+
+    assertThat(batchSizes).containsExactlyInAnyOrder(100, 100, 50);
+    assertThat(rows).hasSize(250);
+    assertThat(rows).extracting(IpGeoResponse::getQuery).containsExactlyInAnyOrderElementsOf(ips);
+    assertThat(rows).allSatisfy(r -> assertThat(r.getCity()).isEqualTo("Madrid"));
+  }
+
+  @Test
+  void lookupMany_keepsPerAddressFailuresAsRows() {
+    List<IpGeoResponse> rows =
+        client.lookupManyAsync(List.of("81.0.0.1", "10.0.0.1")).collectList().block();
+
+    assertThat(rows)
+        .extracting(IpGeoResponse::getStatus)
+        .containsExactlyInAnyOrder("success", "fail");
+    assertThat(rows)
+        .filteredOn(r -> "fail".equals(r.getStatus()))
+        .extracting(IpGeoResponse::getMessage)
+        .containsExactly("private range");
+  }
+}
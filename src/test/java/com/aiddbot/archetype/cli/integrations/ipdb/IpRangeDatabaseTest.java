@@ -0,0 +1,75 @@
+package com.aiddbot.archetype.cli.integrations.ipdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.aiddbot.archetype.cli.integrations.ipapi.IpGeoResponse;
+
+class IpRangeDatabaseTest {
+
+  @TempDir Path dir;
+
+  private IpRangeDatabase load(String content) throws Exception {
+    Path file = dir.resolve("ranges.csv");
+    Files.writeString(file, content);
+    return IpRangeDatabase.load(file);
+  }
+
+  @Test
+  void lookup_findsRangeAndCidrEntries_regardlessOfFileOrder() throws Exception {
+    IpRangeDatabase db =
+        load(
+            """
+            # start,end,lat,lon,city,country
+            200.1.0.0/16,-34.60,-58.38,Buenos Aires,Argentina
+            81.0.0.0,81.0.255.255,40.4168,-3.7038,Madrid,Spain
+            10.0.0.0/8,0,0,,
+            """);
+
+    assertThat(db.size()).isEqualTo(3);
+
+    IpGeoResponse madrid = db.lookup("81.0.12.34");
+    assertThat(madrid.getStatus()).isEqualTo("success");
+    assertThat(madrid.getCity()).isEqualTo("Madrid");
+    assertThat(madrid.getLat()).isEqualTo(40.4168);
+
+    // high addresses must sort above low ones (unsigned ordering)
+    assertThat(db.lookup("200.1.255.255").getCountry()).isEqualTo("Argentina");
+    assertThat(db.lookup("10.20.30.40").getCity()).isNull();
+  }
+
+  @Test
+  void lookup_outsideAnyRange_isFail() throws Exception {
+    IpRangeDatabase db = load("81.0.0.0/16,40.4,-3.7,Madrid,Spain\n");
+
+    assertThat(db.lookup("81.1.0.0").getStatus()).isEqualTo("fail");
+    assertThat(db.lookup("80.255.255.255").getStatus()).isEqualTo("fail");
+    assertThat(db.indexOf(IpRangeDatabase.parseIpv4("81.0.255.255"))).isZero();
+  }
+
+  @Test
+  void load_rejectsOverlapsAndMalformedLines() {
+    assertThatThrownBy(() -> load("81.0.0.0/16,1,1,a,b\n81.0.128.0/17,2,2,c,d\n"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> load("81.0.0.0/16\n"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining(":1:");
+  }
+
+  @Test
+  void parseIpv4_rejectsInvalidText() {
+    assertThat(IpRangeDatabase.parseIpv4("255.255.255.255")).isEqualTo(-1);
+    assertThatThrownBy(() -> IpRangeDatabase.parseIpv4("1.2.3"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> IpRangeDatabase.parseIpv4("1.2.3.256"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> IpRangeDatabase.parseIpv4("a.b.c.d"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
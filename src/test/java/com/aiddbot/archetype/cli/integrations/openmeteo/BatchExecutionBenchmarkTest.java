@@ -0,0 +1,161 @@
+package com.aiddbot.archetype.cli.integrations.openmeteo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.aiddbot.archetype.cli.cache.ObservationCache;
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.config.WebClientConfig;
+import com.aiddbot.archetype.cli.location.Coordinates;
+import com.aiddbot.archetype.cli.runtime.BoundedTasks;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Compares batch execution models against a local stub with fixed latency.
+ *
+ * <p>Skipped by default; run with {@code mvn test -Dtest=BatchExecutionBenchmarkTest -Dbench=true}.
+ * Every model issues one request per location with the same concurrency cap, so the numbers
+ * reflect scheduling cost rather than request packing. The client is the application's own
+ * {@link WebClientConfig} client, with a connection pool large enough for every request in flight.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class BatchExecutionBenchmarkTest {
+
+  private static final int LOCATIONS = 2000;
+  private static final int CONCURRENCY = 256;
+  private static final int LATENCY_MS = 20;
+  private static final byte[] BODY =
+      "{\"current_weather\":{\"temperature\":20.0,\"windspeed\":3.0,\"weathercode\":0}}"
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final List<Coordinates> points =
+      IntStream.range(0, LOCATIONS)
+          .mapToObj(i -> new Coordinates(-60 + (i % 120), -170 + (i % 340)))
+          .toList();
+  private HttpServer server;
+  private AnnotationConfigApplicationContext context;
+  private OpenMeteoClient client;
+
+  @BeforeEach
+  void startStub() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext(
+        "/v1/forecast",
+        exchange -> {
+          try {
+            Thread.sleep(LATENCY_MS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, BODY.length);
+          exchange.getResponseBody().write(BODY);
+          exchange.close();
+        });
+    server.start();
+
+    CliProperties props = new CliProperties();
+    props
+        .getEndpoints()
+        .setOpenMeteoBaseUrl(
+            URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/forecast"));
+    props.getBatch().setMaxInFlight(CONCURRENCY);
+    props.getBatch().setLocationsPerRequest(1);
+    props.getNetwork().setPoolMaxConnections(CONCURRENCY);
+    props.getNetwork().setReadTimeoutMs(10_000);
+    context = new AnnotationConfigApplicationContext();
+    context.registerBean(CliProperties.class, () -> props);
+    context.register(WebClientConfig.class);
+    context.refresh();
+    client =
+        new OpenMeteoClient(context.getBean(WebClient.class), props, ObservationCache.NOOP);
+
+    // Warm up connection pool and JIT so the first model measured is not penalised
+    client.fetchCurrentManyAsync(points.subList(0, CONCURRENCY)).blockLast();
+  }
+
+  @AfterEach
+  void stopStub() {
+    context.close();
+    server.stop(0);
+  }
+
+  @Test
+  void compareExecutionModels() throws Exception {
+    measure(
+        "reactive (flatMap)",
+        () -> client.fetchCurrentManyAsync(points).count().block().intValue());
+
+    measure(
+        "virtual threads (block per location)",
+        () -> {
+          AtomicInteger done = new AtomicInteger();
+          BoundedTasks.forEach(
+              points.iterator(),
+              CONCURRENCY,
+              c -> {
+                client.fetchCurrent(c.lat(), c.lon());
+                done.incrementAndGet();
+              });
+          return done.get();
+        });
+
+    measure(
+        "platform thread pool (block per location)",
+        () -> {
+          try (ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY)) {
+            List<Future<WeatherObservation>> futures =
+                points.stream()
+                    .map(c -> pool.submit(() -> client.fetchCurrent(c.lat(), c.lon())))
+                    .toList();
+            int done = 0;
+            for (Future<WeatherObservation> f : futures) {
+              f.get();
+              done++;
+            }
+            return done;
+          }
+        });
+  }
+
+  private void measure(String model, Run run) throws Exception {
+    threads.resetPeakThreadCount();
+    long start = System.nanoTime();
+    int completed = run.call();
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+    System.out.printf(
+        "%-42s %5d locations in %5d ms (%6.0f/s), peak platform threads %d%n",
+        model,
+        completed,
+        elapsedMs,
+        completed * 1000.0 / Math.max(1, elapsedMs),
+        threads.getPeakThreadCount());
+    assertThat(completed).isEqualTo(LOCATIONS);
+  }
+
+  @FunctionalInterface
+  private interface Run {
+    int call() throws Exception;
+  }
+}
@@ -0,0 +1,172 @@
+package com.aiddbot.archetype.cli.integrations.openmeteo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.aiddbot.archetype.cli.cache.MappedObservationCache;
+import com.aiddbot.archetype.cli.cache.ObservationCache;
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.location.Coordinates;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class OpenMeteoClientTest {
+
+  private final List<URI> requests = new CopyOnWriteArrayList<>();
+
+  // Answers every request with one current_weather per requested latitude; temperature = latitude
+  private WebClient stubWebClient() {
+    return WebClient.builder()
+        .exchangeFunction(
+            request -> {
+              requests.add(request.url());
+              String lats =
+                  UriComponentsBuilder.fromUri(request.url())
+                      .build()
+                      .getQueryParams()
+                      .getFirst("latitude");
+              List<String> items =
+                  List.of(lats.split(",")).stream()
+                      .map(
+                          lat ->
+                              "{\"current_weather\":{\"temperature\":"
+                                  + lat
+                                  + ",\"windspeed\":1.0,\"weathercode\":0}}")
+                      .toList();
+              String body =
+                  items.size() == 1 ? items.get(0) : "[" + String.join(",", items) + "]";
+              return Mono.just(
+                  ClientResponse.create(HttpStatus.OK)
+                      .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                      .body(body)
+                      .build());
+            })
+        .build();
+  }
+
+  private OpenMeteoClient client(int locationsPerRequest) {
+    CliProperties props = new CliProperties();
+    props.getBatch().setLocationsPerRequest(locationsPerRequest);
+    return new OpenMeteoClient(stubWebClient(), props, ObservationCache.NOOP);
+  }
+
+  @Test
+  void fetchCurrentMany_splitsIntoChunksAndKeepsInputOrder() {
+    List<Coordinates> points =
+        List.of(
+            new Coordinates(1, 0),
+            new Coordinates(2, 0),
+            new Coordinates(3, 0),
+            new Coordinates(4, 0),
+            new Coordinates(5, 0));
+
+    List<WeatherObservation> result = client(2).fetchCurrentMany(points);
+
+    assertThat(requests).hasSize(3);
+    assertThat(result.stream().map(WeatherObservation::getTemperatureCelsius).toList())
+        .containsExactly(1.0, 2.0, 3.0, 4.0, 5.0);
+  }
+
+  @Test
+  void fetchCurrentMany_packsCoordinatesIntoOneRequest() {
+    client(100).fetchCurrentMany(List.of(new Coordinates(10, 20), new Coordinates(30, 40)));
+
+    assertThat(requests).hasSize(1);
+    String query = requests.stream().map(URI::getRawQuery).collect(Collectors.joining());
+    assertThat(query).contains("latitude=10.0,30.0").contains("longitude=20.0,40.0");
+  }
+
+  @Test
+  void concurrentLookupsInSameGridCell_shareOneRequest() {
+    WebClient slow =
+        WebClient.builder()
+            .exchangeFunction(
+                request -> {
+                  requests.add(request.url());
+                  return Mono.delay(Duration.ofMillis(100))
+                      .map(
+                          t ->
+                              ClientResponse.create(HttpStatus.OK)
+                                  .header(
+                                      HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                  .body(
+                                      "{\"current_weather\":{\"temperature\":20.0,"
+                                          + "\"windspeed\":1.0,\"weathercode\":0}}")
+                                  .build());
+                })
+            .build();
+    OpenMeteoClient client = new OpenMeteoClient(slow, new CliProperties(), ObservationCache.NOOP);
+
+    List<WeatherObservation> results =
+        Flux.range(0, 10)
+            .flatMap(i -> client.fetchCurrentAsync(40.4168, -3.7038 + i * 0.0001))
+            .collectList()
+            .block();
+
+    assertThat(results).hasSize(10);
+    assertThat(requests).hasSize(1);
+    assertThat(client.flights().joined()).isEqualTo(9);
+  }
+
+  @Test
+  void fetchCurrentMany_emptyInput_issuesNoRequest() {
+    assertThat(client(10).fetchCurrentMany(List.of())).isEmpty();
+    assertThat(requests).isEmpty();
+  }
+
+  @Test
+  void fetchCurrent_servesRepeatedLookupsFromCache(@TempDir Path dir) throws Exception {
+    try (MappedObservationCache cache =
+        new MappedObservationCache(
+            dir.resolve("obs.bin"), 64, Duration.ofMinutes(5), 0.01, Clock.systemUTC())) {
+      OpenMeteoClient client = new OpenMeteoClient(stubWebClient(), new CliProperties(), cache);
+
+      client.fetchCurrent(40.0, -3.0);
+      WeatherObservation cached = client.fetchCurrent(40.0, -3.0);
+      List<WeatherObservation> many =
+          client.fetchCurrentMany(List.of(new Coordinates(40.0, -3.0), new Coordinates(41, -3)));
+
+      assertThat(cached.getTemperatureCelsius()).isEqualTo(40.0);
+      assertThat(many.get(0).getTemperatureCelsius()).isEqualTo(40.0);
+      assertThat(many.get(1).getTemperatureCelsius()).isEqualTo(41.0);
+      // first lookup plus the single miss of the multi-location call
+      assertThat(requests).hasSize(2);
+    }
+  }
+
+  @Test
+  void fetchCurrent_mapsHttpErrorToNetworkCode() {
+    WebClient failing =
+        WebClient.builder()
+            .exchangeFunction(
+                request -> Mono.just(ClientResponse.create(HttpStatus.BAD_GATEWAY).build()))
+            .build();
+    OpenMeteoClient client =
+        new OpenMeteoClient(failing, new CliProperties(), ObservationCache.NOOP);
+
+    assertThatThrownBy(() -> client.fetchCurrent(1, 2))
+        .isInstanceOf(CodedException.class)
+        .extracting(e -> ((CodedException) e).getExitCode())
+        .isEqualTo(ExitCodes.NETWORK);
+  }
+}
@@ -0,0 +1,34 @@
+package com.aiddbot.archetype.cli.location;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class CoordinatesReaderTest {
+
+  @Test
+  void parse_acceptsCommaSemicolonAndWhitespace() {
+    Coordinates madrid = new Coordinates(40.4168, -3.7038);
+    assertThat(CoordinatesReader.parse("40.4168,-3.7038")).isEqualTo(madrid);
+    assertThat(CoordinatesReader.parse(" 40.4168 ; -3.7038 ")).isEqualTo(madrid);
+    assertThat(CoordinatesReader.parse("40.4168\t-3.7038")).isEqualTo(madrid);
+  }
+
+  @Test
+  void parse_rejectsMalformedOrOutOfRange() {
+    assertThatThrownBy(() -> CoordinatesReader.parse("40.4"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> CoordinatesReader.parse("abc,def"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> CoordinatesReader.parse("91,0"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> CoordinatesReader.parse("0,181"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void label_isLocaleIndependent() {
+    assertThat(new Coordinates(40.41681, -3.70379).label()).isEqualTo("40.4168,-3.7038");
+  }
+}
@@ -0,0 +1,56 @@
+package com.aiddbot.archetype.cli.location;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.UncheckedIOException;
+
+import org.junit.jupiter.api.Test;
+
+class GazetteerTest {
+
+  private final Gazetteer gazetteer = new Gazetteer();
+
+  @Test
+  void find_exactName_ignoresCaseAndAccents() {
+    Gazetteer.City madrid = gazetteer.find("  MADRID ").orElseThrow();
+    assertThat(madrid.country()).isEqualTo("Spain");
+    assertThat(madrid.lat()).isEqualTo(40.4168);
+
+    assertThat(gazetteer.find("Málaga")).map(Gazetteer.City::name).contains("Malaga");
+  }
+
+  @Test
+  void find_sharedName_prefersLargestPopulation_unlessCountryGiven() {
+    assertThat(gazetteer.find("London")).map(Gazetteer.City::country).contains("United Kingdom");
+    assertThat(gazetteer.find("London, Canada")).map(Gazetteer.City::country).contains("Canada");
+    assertThat(gazetteer.find("paris, united"))
+        .map(Gazetteer.City::country)
+        .contains("United States");
+  }
+
+  @Test
+  void find_uniquePrefix_resolves() {
+    assertThat(gazetteer.find("sevil")).map(Gazetteer.City::name).contains("Sevilla");
+  }
+
+  @Test
+  void find_ambiguousPrefix_listsCandidates() {
+    assertThatThrownBy(() -> gazetteer.find("San"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("San Francisco");
+  }
+
+  @Test
+  void find_unknown_isEmpty() {
+    assertThat(gazetteer.find("Atlantis")).isEmpty();
+    assertThat(gazetteer.find(" ")).isEmpty();
+  }
+
+  @Test
+  void index_isBuiltLazily() {
+    Gazetteer broken = new Gazetteer("gazetteer/missing.csv");
+    // constructing it never touches the resource
+    assertThatThrownBy(broken::size).isInstanceOf(UncheckedIOException.class);
+  }
+}
@@ -0,0 +1,75 @@
+package com.aiddbot.archetype.cli.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class CorrelationTest {
+
+  @AfterEach
+  void clearMdc() {
+    MDC.clear();
+  }
+
+  @Test
+  void run_setsFreshIdAndRestoresMdc() {
+    MDC.put("other", "kept");
+
+    String id = Correlation.run("weather", () -> MDC.get(Correlation.ID));
+    String second = Correlation.run("weather", () -> MDC.get(Correlation.ID));
+
+    assertThat(id).isNotBlank().isNotEqualTo(second);
+    assertThat(MDC.get(Correlation.ID)).isNull();
+    assertThat(MDC.get("other")).isEqualTo("kept");
+  }
+
+  @Test
+  void onErrorMap_runsMapperWithSubscriberMdcOnOtherThread() {
+    AtomicReference<String> seen = new AtomicReference<>();
+    AtomicReference<String> thread = new AtomicReference<>();
+
+    String id =
+        Correlation.run(
+            "weather",
+            () -> {
+              Mono.<String>error(new IllegalStateException("boom"))
+                  .subscribeOn(Schedulers.single())
+                  .transform(
+                      Correlation.onErrorMap(
+                          e -> true,
+                          e -> {
+                            seen.set(MDC.get(Correlation.ID));
+                            thread.set(Thread.currentThread().getName());
+                            return new CodedException(ExitCodes.NETWORK, "mapped", e);
+                          }))
+                  .contextWrite(Correlation.context())
+                  .onErrorResume(CodedException.class, ce -> Mono.empty())
+                  .block();
+              return MDC.get(Correlation.ID);
+            });
+
+    assertThat(thread.get()).isNotEqualTo(Thread.currentThread().getName());
+    assertThat(seen.get()).isEqualTo(id);
+  }
+
+  @Test
+  void wrap_carriesMdcToAnotherThread() throws Exception {
+    AtomicReference<String> seen = new AtomicReference<>();
+    MDC.put(Correlation.ID, "abc");
+
+    Thread t = Thread.ofVirtual().start(Correlation.wrap(() -> seen.set(MDC.get(Correlation.ID))));
+    t.join();
+
+    assertThat(seen.get()).isEqualTo("abc");
+  }
+}
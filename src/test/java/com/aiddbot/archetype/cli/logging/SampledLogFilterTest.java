@@ -0,0 +1,55 @@
+package com.aiddbot.archetype.cli.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+class SampledLogFilterTest {
+
+  private final LoggerContext context = new LoggerContext();
+  private final Logger logger = context.getLogger("test");
+  private final SampledLogFilter filter = new SampledLogFilter();
+
+  @BeforeEach
+  void setUp() {
+    logger.setLevel(Level.INFO);
+    filter.setContext(context);
+    filter.setFirst(2);
+    filter.setRate(3);
+    filter.start();
+  }
+
+  @Test
+  void passesFirstEventsThenOneInRate() {
+    long passed =
+        IntStream.range(0, 10)
+            .mapToObj(i -> decide(SampledLogFilter.PER_ITEM, Level.ERROR))
+            .filter(r -> r == FilterReply.NEUTRAL)
+            .count();
+
+    // events 1, 2, 5 and 8
+    assertThat(passed).isEqualTo(4);
+    assertThat(filter.dropped()).isEqualTo(6);
+  }
+
+  @Test
+  void leavesUnmarkedAndDisabledEventsAlone() {
+    for (int i = 0; i < 10; i++) {
+      assertThat(decide(null, Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+      assertThat(decide(SampledLogFilter.PER_ITEM, Level.DEBUG)).isEqualTo(FilterReply.NEUTRAL);
+    }
+    assertThat(filter.dropped()).isZero();
+  }
+
+  private FilterReply decide(org.slf4j.Marker marker, Level level) {
+    return filter.decide(marker, logger, level, "msg", null, null);
+  }
+}
@@ -0,0 +1,64 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CommandMetricsTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void attach() {
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void detach() {
+    Metrics.removeRegistry(registry);
+  }
+
+  @Test
+  void successfulRun_isTimedWithSuccessExit() {
+    assertThat(CommandMetrics.record("test-ok", () -> "done")).isEqualTo("done");
+
+    assertThat(registry.get("cli.command").tags("command", "test-ok", "exit", "SUCCESS").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void failedRun_isCountedByExitCode() {
+    assertThatThrownBy(
+            () ->
+                CommandMetrics.record(
+                    "test-fail",
+                    () -> {
+                      throw new CodedException(ExitCodes.NETWORK, "down");
+                    }))
+        .isInstanceOf(CodedException.class);
+
+    assertThat(
+            registry
+                .get("cli.command.errors")
+                .tags("command", "test-fail", "exit", "NETWORK")
+                .counter()
+                .count())
+        .isEqualTo(1);
+    assertThat(registry.get("cli.command").tags("command", "test-fail", "exit", "NETWORK").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void illegalArgument_mapsToValidation() {
+    assertThat(CommandMetrics.exitCodeOf(new IllegalArgumentException("bad"))).isEqualTo(ExitCodes.VALIDATION);
+  }
+}
@@ -0,0 +1,44 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricsSnapshotTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void rendersTimersWithPercentiles_andCountersSortedByName() {
+    Timer timer =
+        Timer.builder("cli.upstream.calls")
+            .tag("upstream", "open-meteo")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    timer.record(Duration.ofMillis(100));
+    timer.record(Duration.ofMillis(300));
+    registry.counter("cli.cache.lookups", "cache", "observations", "result", "hit").increment(3);
+
+    String[] lines = MetricsSnapshot.render(registry).split(System.lineSeparator());
+
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).isEqualTo("cli.cache.lookups{cache=observations,result=hit} count=3");
+    assertThat(lines[1])
+        .startsWith("cli.upstream.calls{upstream=open-meteo} count=2 mean=200.0ms max=300.0ms")
+        .contains(" p50=")
+        .contains(" p99=");
+  }
+
+  @Test
+  void skipsMetersThatNeverRecorded() {
+    registry.timer("cli.render");
+    registry.counter("cli.command.errors");
+
+    assertThat(MetricsSnapshot.render(registry)).isEmpty();
+  }
+}
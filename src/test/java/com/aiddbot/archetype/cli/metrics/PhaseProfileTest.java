@@ -0,0 +1,32 @@
+package com.aiddbot.archetype.cli.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PhaseProfileTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void reportsOnlyTimeRecordedAfterStart_summedAcrossTags() {
+    registry.timer("cli.render").record(Duration.ofMillis(500));
+    PhaseProfile profile = PhaseProfile.start(registry);
+
+    registry.timer("cli.render").record(Duration.ofMillis(3));
+    registry.timer("cli.upstream.decode", "upstream", "open-meteo").record(Duration.ofMillis(4));
+    registry.timer("cli.upstream.decode", "upstream", "ip-api").record(Duration.ofMillis(6));
+
+    String report = profile.report(null);
+
+    assertThat(report).startsWith("profile (ms):");
+    assertThat(report).containsPattern("\\n    render\\s+3\\.0");
+    assertThat(report).containsPattern("\\n    json decode\\s+10\\.0");
+    assertThat(report).containsPattern("\\n    dns\\s+0\\.0");
+    assertThat(report).doesNotContain("spring context");
+  }
+}
@@ -0,0 +1,41 @@
+package com.aiddbot.archetype.cli.presenter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+
+class WeatherPresenterTest {
+
+  private final WeatherPresenter presenter = new WeatherPresenter();
+
+  @Test
+  void presentLine_rendersAllFields() {
+    assertThat(presenter.presentLine("Madrid", new WeatherObservation(23.44, 3.1, 0)))
+        .isEqualTo("Madrid: 23.4 C, wind 3.1 m/s, Clear sky");
+  }
+
+  @Test
+  void presentChanges_withoutPrevious_rendersFullLine() {
+    assertThat(presenter.presentChanges("Madrid", null, new WeatherObservation(23.4, 3.1, 0)))
+        .contains("Madrid: 23.4 C, wind 3.1 m/s, Clear sky");
+  }
+
+  @Test
+  void presentChanges_rendersOnlyChangedFields() {
+    WeatherObservation before = new WeatherObservation(23.4, 3.1, 0);
+    WeatherObservation after = new WeatherObservation(23.4, 5.0, 61);
+
+    assertThat(presenter.presentChanges("Madrid", before, after))
+        .contains("Madrid: wind 5.0 m/s, Drizzle / Rain");
+  }
+
+  @Test
+  void presentChanges_ignoresChangesBelowDisplayedPrecision() {
+    WeatherObservation before = new WeatherObservation(23.41, 3.1, 1);
+    WeatherObservation after = new WeatherObservation(23.44, 3.1, 2);
+
+    assertThat(presenter.presentChanges("Madrid", before, after)).isEmpty();
+  }
+}
@@ -0,0 +1,106 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import reactor.core.publisher.Mono;
+
+class CircuitBreakerTest {
+
+  private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+  private final Clock clock = mock(Clock.class);
+  private CircuitBreaker breaker;
+
+  @BeforeEach
+  void setUp() {
+    when(clock.instant()).thenReturn(T0);
+    breaker = new CircuitBreaker("test", 10, 4, 50, Duration.ofSeconds(30), 2, clock);
+  }
+
+  @Test
+  void opensOnceFailureRateIsReached_andThenFailsFastWithoutCalling() {
+    call(Mono.just("ok"));
+    call(Mono.just("ok"));
+    call(Mono.error(new IOException("reset")));
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    call(Mono.error(new IOException("reset")));
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    AtomicInteger subscribed = new AtomicInteger();
+    assertThatThrownBy(
+            () ->
+                breaker
+                    .protect(
+                        Mono.fromCallable(subscribed::incrementAndGet),
+                        TransientErrors::isTransient)
+                    .block())
+        .isInstanceOfSatisfying(
+            CodedException.class, ce -> assertThat(ce.getExitCode()).isEqualTo(ExitCodes.NETWORK));
+    assertThat(subscribed).hasValue(0);
+  }
+
+  @Test
+  void nonTransientErrors_doNotCountAsFailures() {
+    for (int i = 0; i < 10; i++) {
+      call(Mono.error(new IllegalStateException("bad payload")));
+    }
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void halfOpen_closesAfterSuccessfulProbes() {
+    open();
+    when(clock.instant()).thenReturn(T0.plusSeconds(31));
+
+    call(Mono.just("probe"));
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    call(Mono.just("probe"));
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void halfOpen_reopensOnProbeFailure() {
+    open();
+    when(clock.instant()).thenReturn(T0.plusSeconds(31));
+
+    call(Mono.error(new IOException("still down")));
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void halfOpen_admitsOnlyConfiguredNumberOfProbes() {
+    open();
+    when(clock.instant()).thenReturn(T0.plusSeconds(31));
+
+    assertThat(breaker.tryAcquire()).isNotNegative();
+    assertThat(breaker.tryAcquire()).isNotNegative();
+    assertThat(breaker.tryAcquire()).isNegative();
+  }
+
+  private void open() {
+    for (int i = 0; i < 4; i++) {
+      call(Mono.error(new IOException("reset")));
+    }
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  private void call(Mono<String> mono) {
+    breaker.protect(mono, TransientErrors::isTransient).onErrorResume(e -> Mono.empty()).block();
+  }
+}
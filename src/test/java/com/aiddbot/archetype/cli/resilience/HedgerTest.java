@@ -0,0 +1,73 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+class HedgerTest {
+
+  @Test
+  void disabled_subscribesOnce() {
+    Hedger hedger = Hedger.disabled("test");
+    AtomicInteger subscriptions = new AtomicInteger();
+
+    String result =
+        hedger
+            .hedge(() -> Mono.just("ok").doOnSubscribe(s -> subscriptions.incrementAndGet()))
+            .block();
+
+    assertThat(result).isEqualTo("ok");
+    assertThat(subscriptions).hasValue(1);
+    assertThat(hedger.calls()).isZero();
+  }
+
+  @Test
+  void fastPrimary_neverFiresHedge() {
+    Hedger hedger = new Hedger("test", true, 95, Duration.ofMillis(200));
+
+    assertThat(hedger.hedge(() -> Mono.just("ok")).block()).isEqualTo("ok");
+    assertThat(hedger.calls()).isEqualTo(1);
+    assertThat(hedger.fired()).isZero();
+  }
+
+  @Test
+  void slowPrimary_firesHedge_whichWins_andPrimaryIsCancelled() {
+    Hedger hedger = new Hedger("test", true, 95, Duration.ofMillis(20));
+    AtomicInteger attempt = new AtomicInteger();
+    AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+    String result =
+        hedger
+            .hedge(
+                () ->
+                    attempt.getAndIncrement() == 0
+                        ? Mono.delay(Duration.ofSeconds(5))
+                            .thenReturn("slow")
+                            .doOnCancel(() -> primaryCancelled.set(true))
+                        : Mono.just("fast"))
+            .block(Duration.ofSeconds(2));
+
+    assertThat(result).isEqualTo("fast");
+    assertThat(hedger.fired()).isEqualTo(1);
+    assertThat(hedger.won()).isEqualTo(1);
+    assertThat(primaryCancelled).isTrue();
+  }
+
+  @Test
+  void delay_followsObservedPercentile_onceEnoughSamples() {
+    Hedger hedger = new Hedger("test", true, 50, Duration.ofSeconds(10));
+    assertThat(hedger.currentDelay()).isEqualTo(Duration.ofSeconds(10));
+
+    for (int i = 0; i < Hedger.MIN_SAMPLES; i++) {
+      hedger.hedge(() -> Mono.just("ok")).block();
+    }
+
+    assertThat(hedger.currentDelay()).isLessThan(Duration.ofSeconds(1));
+  }
+}
@@ -0,0 +1,73 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class SingleFlightTest {
+
+  private final SingleFlight<String, Integer> flights = new SingleFlight<>();
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private Mono<Integer> slowCall() {
+    return Mono.delay(Duration.ofMillis(50)).map(t -> calls.incrementAndGet());
+  }
+
+  @Test
+  void concurrentCallersWithSameKey_shareOneCall() {
+    List<Integer> results =
+        Flux.range(0, 5).flatMap(i -> flights.execute("k", this::slowCall)).collectList().block();
+
+    assertThat(results).containsOnly(1).hasSize(5);
+    assertThat(flights.started()).isEqualTo(1);
+    assertThat(flights.joined()).isEqualTo(4);
+  }
+
+  @Test
+  void differentKeys_runIndependently() {
+    Flux.merge(flights.execute("a", this::slowCall), flights.execute("b", this::slowCall))
+        .blockLast();
+
+    assertThat(calls).hasValue(2);
+  }
+
+  @Test
+  void keyIsReleasedAfterCompletion_soLaterCallsStartAfresh() {
+    flights.execute("k", this::slowCall).block();
+    flights.execute("k", this::slowCall).block();
+
+    assertThat(calls).hasValue(2);
+    assertThat(flights.joined()).isZero();
+  }
+
+  @Test
+  void errorsAreSharedToo() {
+    AtomicInteger attempts = new AtomicInteger();
+    List<String> outcomes =
+        Flux.range(0, 3)
+            .flatMap(
+                i ->
+                    flights
+                        .execute(
+                            "k",
+                            () ->
+                                Mono.delay(Duration.ofMillis(50))
+                                    .then(
+                                        Mono.<Integer>error(
+                                            new IllegalStateException(
+                                                "down " + attempts.incrementAndGet()))))
+                        .map(String::valueOf)
+                        .onErrorResume(e -> Mono.just(e.getMessage())))
+            .collectList()
+            .block();
+
+    assertThat(outcomes).containsOnly("down 1").hasSize(3);
+  }
+}
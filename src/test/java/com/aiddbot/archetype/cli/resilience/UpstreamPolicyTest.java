@@ -0,0 +1,77 @@
+package com.aiddbot.archetype.cli.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+
+import reactor.core.publisher.Mono;
+
+class UpstreamPolicyTest {
+
+  private final CliProperties.Network net = new CliProperties.Network();
+
+  UpstreamPolicyTest() {
+    net.setRetryBackoffMs(1);
+    net.setRetryMaxBackoffMs(5);
+  }
+
+  @Test
+  void transientFailures_areRetriedUpToTheLimit() {
+    AtomicInteger attempts = new AtomicInteger();
+    UpstreamPolicy policy = UpstreamPolicy.of("test", net);
+
+    String result =
+        policy
+            .execute(
+                () ->
+                    attempts.incrementAndGet() <= 2
+                        ? Mono.<String>error(new IOException("reset"))
+                        : Mono.just("ok"))
+            .block();
+
+    assertThat(result).isEqualTo("ok");
+    assertThat(attempts).hasValue(3);
+  }
+
+  @Test
+  void exhaustedRetries_propagateTheLastErrorUnchanged() {
+    AtomicInteger attempts = new AtomicInteger();
+    UpstreamPolicy policy = UpstreamPolicy.of("test", net);
+
+    assertThatThrownBy(
+            () ->
+                policy
+                    .execute(
+                        () -> {
+                          attempts.incrementAndGet();
+                          return Mono.<String>error(new IOException("reset"));
+                        })
+                    .block())
+        .hasCauseInstanceOf(IOException.class);
+    assertThat(attempts).hasValue(3);
+  }
+
+  @Test
+  void nonTransientFailures_areNotRetried() {
+    AtomicInteger attempts = new AtomicInteger();
+    UpstreamPolicy policy = UpstreamPolicy.of("test", net);
+
+    assertThatThrownBy(
+            () ->
+                policy
+                    .execute(
+                        () -> {
+                          attempts.incrementAndGet();
+                          return Mono.<String>error(new IllegalStateException("bad payload"));
+                        })
+                    .block())
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(attempts).hasValue(1);
+  }
+}
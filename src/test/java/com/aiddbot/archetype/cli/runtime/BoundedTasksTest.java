@@ -0,0 +1,137 @@
+package com.aiddbot.archetype.cli.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedTasksTest {
+
+  @Test
+  void runsEveryItemOnVirtualThreads() {
+    Set<Integer> seen = ConcurrentHashMap.newKeySet();
+    AtomicInteger platform = new AtomicInteger();
+
+    BoundedTasks.forEach(
+        IntStream.range(0, 200).boxed().iterator(),
+        8,
+        i -> {
+          if (!Thread.currentThread().isVirtual()) {
+            platform.incrementAndGet();
+          }
+          seen.add(i);
+        });
+
+    assertThat(seen).hasSize(200);
+    assertThat(platform).hasValue(0);
+  }
+
+  @Test
+  void neverRunsMoreThanLimitAtOnce() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+
+    BoundedTasks.forEach(
+        IntStream.range(0, 100).boxed().iterator(),
+        4,
+        i -> {
+          peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(2);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            running.decrementAndGet();
+          }
+        });
+
+    assertThat(peak.get()).isBetween(1, 4);
+  }
+
+  @Test
+  void readsNextItemOnlyOnceAPermitIsFree() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger busiestRead = new AtomicInteger();
+    Iterator<Integer> source = IntStream.range(0, 50).boxed().iterator();
+    Iterator<Integer> items =
+        new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return source.hasNext();
+          }
+
+          @Override
+          public Integer next() {
+            busiestRead.accumulateAndGet(running.get(), Math::max);
+            return source.next();
+          }
+        };
+
+    BoundedTasks.forEach(
+        items,
+        2,
+        i -> {
+          running.incrementAndGet();
+          try {
+            Thread.sleep(2);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            running.decrementAndGet();
+          }
+        });
+
+    assertThat(busiestRead.get()).isLessThan(2);
+  }
+
+  @Test
+  void failingIterator_isRethrown() {
+    Iterator<Integer> items =
+        new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return true;
+          }
+
+          @Override
+          public Integer next() {
+            throw new IllegalStateException("bad input");
+          }
+        };
+
+    assertThatThrownBy(() -> BoundedTasks.forEach(items, 2, i -> {}))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("bad input");
+  }
+
+  @Test
+  void failingTask_interruptsOthersAndIsRethrown() {
+    AtomicInteger interrupted = new AtomicInteger();
+
+    assertThatThrownBy(
+            () ->
+                BoundedTasks.forEach(
+                    List.of(0, 1, 2, 3).iterator(),
+                    4,
+                    i -> {
+                      if (i == 3) {
+                        throw new CodedException(ExitCodes.NETWORK, "boom");
+                      }
+                      try {
+                        Thread.sleep(10_000);
+                      } catch (InterruptedException e) {
+                        interrupted.incrementAndGet();
+                      }
+                    }))
+        .isInstanceOf(CodedException.class)
+        .hasMessage("boom");
+    assertThat(interrupted).hasValue(3);
+  }
+}
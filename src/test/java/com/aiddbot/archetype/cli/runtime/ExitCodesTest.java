@@ -14,4 +14,11 @@ class ExitCodesTest {
     assertThat(ExitCodes.IO.code()).isEqualTo(4);
     assertThat(ExitCodes.NETWORK.code()).isEqualTo(5);
   }
+
+  @Test
+  void of_mapsCodesBack() {
+    assertThat(ExitCodes.of(5)).isEqualTo(ExitCodes.NETWORK);
+    assertThat(ExitCodes.of(0)).isEqualTo(ExitCodes.SUCCESS);
+    assertThat(ExitCodes.of(42)).isEqualTo(ExitCodes.UNKNOWN);
+  }
 }
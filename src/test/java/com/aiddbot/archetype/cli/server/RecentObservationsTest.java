@@ -0,0 +1,70 @@
+package com.aiddbot.archetype.cli.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+
+import reactor.core.publisher.Mono;
+
+class RecentObservationsTest {
+
+  private final AtomicLong now = new AtomicLong();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private Mono<WeatherObservation> load() {
+    return Mono.fromSupplier(() -> new WeatherObservation(loads.incrementAndGet(), 0, 0));
+  }
+
+  private static OpenMeteoClient.Cell cell(long n) {
+    return new OpenMeteoClient.Cell(n, n);
+  }
+
+  @Test
+  void hit_isServedUntilTtlExpires() {
+    RecentObservations recent = new RecentObservations(10, Duration.ofSeconds(60), now::get);
+
+    recent.get(cell(1), this::load).block();
+    now.addAndGet(Duration.ofSeconds(59).toNanos());
+    recent.get(cell(1), this::load).block();
+    assertThat(loads).hasValue(1);
+
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    WeatherObservation reloaded = recent.get(cell(1), this::load).block();
+    assertThat(loads).hasValue(2);
+    assertThat(reloaded.getTemperatureCelsius()).isEqualTo(2.0);
+  }
+
+  @Test
+  void leastRecentlyUsedCell_isEvictedAtCapacity() {
+    RecentObservations recent = new RecentObservations(2, Duration.ofSeconds(60), now::get);
+
+    recent.get(cell(1), this::load).block();
+    recent.get(cell(2), this::load).block();
+    recent.get(cell(1), this::load).block();
+    recent.get(cell(3), this::load).block();
+    assertThat(recent.size()).isEqualTo(2);
+    assertThat(loads).hasValue(3);
+
+    recent.get(cell(1), this::load).block();
+    assertThat(loads).hasValue(3);
+    recent.get(cell(2), this::load).block();
+    assertThat(loads).hasValue(4);
+  }
+
+  @Test
+  void failures_areNotCached() {
+    RecentObservations recent = new RecentObservations(10, Duration.ofSeconds(60), now::get);
+
+    recent.get(cell(1), () -> Mono.error(new IllegalStateException("down"))).onErrorComplete().block();
+    recent.get(cell(1), this::load).block();
+
+    assertThat(loads).hasValue(1);
+  }
+}
@@ -0,0 +1,189 @@
+package com.aiddbot.archetype.cli.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.aiddbot.archetype.cli.config.CliProperties;
+import com.aiddbot.archetype.cli.integrations.openmeteo.OpenMeteoClient;
+import com.aiddbot.archetype.cli.integrations.openmeteo.WeatherObservation;
+import com.aiddbot.archetype.cli.location.Gazetteer;
+import com.aiddbot.archetype.cli.presenter.WeatherPresenter;
+import com.aiddbot.archetype.cli.runtime.CodedException;
+import com.aiddbot.archetype.cli.runtime.ExitCodes;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class WeatherApiTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final OpenMeteoClient client = mock(OpenMeteoClient.class);
+  private WebTestClient http;
+
+  @BeforeEach
+  void setUp() {
+    Metrics.addRegistry(registry);
+    when(client.cellOf(anyDouble(), anyDouble()))
+        .thenAnswer(
+            call ->
+                new OpenMeteoClient.Cell(
+                    Math.round(call.<Double>getArgument(0) * 100),
+                    Math.round(call.<Double>getArgument(1) * 100)));
+    CliProperties props = new CliProperties();
+    props.getNetwork().setOverallTimeoutMs(1000);
+    WeatherApi api =
+        new WeatherApi(client, new Gazetteer(), new WeatherPresenter(), registry, props);
+    http = WebTestClient.bindToRouterFunction(api.routes()).build();
+  }
+
+  @AfterEach
+  void detach() {
+    Metrics.removeRegistry(registry);
+  }
+
+  @Test
+  void coordinates_returnJson_andRepeatsAreServedFromMemory() {
+    when(client.fetchCurrentAsync(40.4168, -3.7038))
+        .thenReturn(Mono.just(new WeatherObservation(23.4, 3.1, 0)));
+
+    for (int i = 0; i < 3; i++) {
+      http.get()
+          .uri("/weather?lat=40.4168&lon=-3.7038")
+          .exchange()
+          .expectStatus()
+          .isOk()
+          .expectBody()
+          .jsonPath("$.location")
+          .isEqualTo("40.4168,-3.7038")
+          .jsonPath("$.temperatureCelsius")
+          .isEqualTo(23.4)
+          .jsonPath("$.weatherCode")
+          .isEqualTo(0)
+          .jsonPath("$.summary")
+          .isEqualTo("40.4168,-3.7038: 23.4 C, wind 3.1 m/s, Clear sky");
+    }
+
+    verify(client, times(1)).fetchCurrentAsync(40.4168, -3.7038);
+    assertThat(registry.get("cli.cache.lookups").tags("cache", "server", "result", "hit").counter().count())
+        .isEqualTo(2);
+    assertThat(
+            registry
+                .get("cli.server.requests")
+                .tags("route", "weather", "method", "GET", "status", "200")
+                .timer()
+                .count())
+        .isEqualTo(3);
+  }
+
+  @Test
+  void city_isResolvedWithTheGazetteer() {
+    when(client.fetchCurrentAsync(40.4168, -3.7038))
+        .thenReturn(Mono.just(new WeatherObservation(18.0, 1.0, 61)));
+
+    http.get()
+        .uri("/weather?city=Madrid")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.location")
+        .isEqualTo("Madrid, Spain")
+        .jsonPath("$.lat")
+        .isEqualTo(40.4168);
+  }
+
+  @Test
+  void invalidInput_isBadRequestWithValidationExitCode() {
+    http.get()
+        .uri("/weather?lat=91&lon=0")
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.exitCode")
+        .isEqualTo(ExitCodes.VALIDATION.code())
+        .jsonPath("$.error")
+        .isEqualTo("latitude out of range: 91.0");
+
+    http.get().uri("/weather").exchange().expectStatus().isBadRequest();
+    http.get().uri("/weather?city=Atlantis").exchange().expectStatus().isBadRequest();
+    assertThat(
+            registry
+                .get("cli.server.requests")
+                .tags("route", "weather", "method", "GET", "status", "400")
+                .timer()
+                .count())
+        .isEqualTo(3);
+  }
+
+  @Test
+  void upstreamFailure_isBadGateway_andNotCached() {
+    when(client.fetchCurrentAsync(1.0, 2.0))
+        .thenReturn(Mono.error(new CodedException(ExitCodes.NETWORK, "Open-Meteo down")));
+
+    http.get()
+        .uri("/weather?lat=1&lon=2")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(502)
+        .expectBody()
+        .jsonPath("$.exitCode")
+        .isEqualTo(ExitCodes.NETWORK.code());
+    http.get().uri("/weather?lat=1&lon=2").exchange().expectStatus().isEqualTo(502);
+
+    verify(client, times(2)).fetchCurrentAsync(1.0, 2.0);
+  }
+
+  @Test
+  void slowUpstream_timesOutAsBadGateway() {
+    when(client.fetchCurrentAsync(1.0, 2.0))
+        .thenReturn(Mono.<WeatherObservation>never());
+
+    http.mutate()
+        .responseTimeout(Duration.ofSeconds(5))
+        .build()
+        .get()
+        .uri("/weather?lat=1&lon=2")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(502)
+        .expectBody()
+        .jsonPath("$.error")
+        .isEqualTo("weather timed out after 1000 ms");
+  }
+
+  @Test
+  void routes_loadTheGazetteerUpFront() {
+    Gazetteer gazetteer = mock(Gazetteer.class);
+
+    new WeatherApi(client, gazetteer, new WeatherPresenter(), registry, new CliProperties())
+        .routes();
+
+    verify(gazetteer).size();
+  }
+
+  @Test
+  void metrics_listTheRouteTimers() {
+    http.get().uri("/weather").exchange();
+
+    http.get()
+        .uri("/metrics")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(String.class)
+        .value(body -> assertThat(body).contains("cli.server.requests{"));
+  }
+}